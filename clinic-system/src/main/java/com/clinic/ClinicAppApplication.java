@@ -3,6 +3,7 @@ package com.clinic;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -13,10 +14,13 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  *  @SpringBootApplication   — enables auto-configuration, component scan, configuration
  *  @EnableJpaAuditing       — activates @CreatedDate / @LastModifiedDate on entities
  *  @EnableScheduling        — activates @Scheduled tasks (appointment reminders)
+ *  @EnableAsync             — activates @Async on the notificationExecutor
+ *                             (NotificationExecutorConfig)
  */
 @SpringBootApplication
 @EnableJpaAuditing
 @EnableScheduling
+@EnableAsync
 public class ClinicAppApplication {
 
     public static void main(String[] args) {
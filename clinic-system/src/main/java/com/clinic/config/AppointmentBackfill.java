@@ -0,0 +1,48 @@
+package com.clinic.config;
+
+import com.clinic.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * AppointmentBackfill — fills Appointment.slotHeld, startsAt and
+ * reminderDueAt for rows created before those columns were added
+ * (ddl-auto=update adds them as NULL). New and updated rows maintain them
+ * via the entity callback.
+ *
+ * The backfill UPDATEs scan the whole table, so they only run while the
+ * oldest appointment still lacks starts_at — a primary-key lookup. Rows
+ * older than the columns have the lowest ids (SequenceAligner starts the id
+ * sequence past them) and are all filled in one transaction, so once the
+ * oldest row has starts_at every row does.
+ *
+ * Active rows that already double-book a slot cannot all hold it: the
+ * oldest keeps the slot, the others are left NULL and reported here.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentBackfill implements ApplicationRunner {
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!appointmentRepository.oldestLacksStartsAt()) return;
+
+        int held = appointmentRepository.backfillSlotHeld();
+        int started = appointmentRepository.backfillStartsAt();
+        log.info("Backfilled slot_held on {} and starts_at / reminder_due_at on {} appointments", held, started);
+
+        long unheld = appointmentRepository.countUnheldActiveSlots();
+        if (unheld > 0) {
+            log.warn("{} active appointments double-book a slot and are not covered by uk_appointment_active_slot",
+                    unheld);
+        }
+    }
+}
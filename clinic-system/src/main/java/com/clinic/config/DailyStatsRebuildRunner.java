@@ -0,0 +1,58 @@
+package com.clinic.config;
+
+import com.clinic.service.support.DailyStatsRebuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * DailyStatsRebuildRunner — backfills daily_clinic_stats on startup when asked.
+ *
+ * Usage:
+ *   java -jar clinic-app.jar --rebuild-daily-stats=2025-01-01:2026-03-31
+ *   java -jar clinic-app.jar --rebuild-daily-stats=2025-01-01   (up to today)
+ *
+ * Without the option this runner does nothing; a missing or malformed
+ * range is logged as an error and startup continues without a rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DailyStatsRebuildRunner implements ApplicationRunner {
+
+    static final String OPTION = "rebuild-daily-stats";
+
+    private final DailyStatsRebuilder rebuilder;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> values = args.getOptionValues(OPTION);
+        if (values == null) return;
+        if (values.isEmpty() || values.get(0).isBlank()) {
+            log.error("--{} needs a range: FROM[:TO] (ISO dates)", OPTION);
+            return;
+        }
+
+        String[] range = values.get(0).split(":");
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(range[0]);
+            to = range.length > 1 ? LocalDate.parse(range[1]) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            log.error("--{}={} is not a valid range: FROM[:TO] (ISO dates)", OPTION, values.get(0));
+            return;
+        }
+        if (range.length > 2 || to.isBefore(from)) {
+            log.error("--{}={} is not a valid range: FROM[:TO] with FROM <= TO", OPTION, values.get(0));
+            return;
+        }
+        rebuilder.rebuild(from, to);
+    }
+}
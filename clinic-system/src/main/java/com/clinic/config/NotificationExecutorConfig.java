@@ -0,0 +1,131 @@
+package com.clinic.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NotificationExecutorConfig — the "notificationExecutor" used by
+ * @Async("notificationExecutor") methods and the outbox dispatch kick.
+ *
+ * clinic.notification.executor.mode:
+ *  platform — ThreadPoolTaskExecutor with core/max threads and a bounded
+ *             queue. When both are full the rejection policy applies:
+ *               shed        — drop the task (counted); everything submitted
+ *                             here is recoverable — the outbox poller picks
+ *                             up a dropped dispatch kick
+ *               caller-runs — run it on the submitting thread (backpressure)
+ *  virtual  — one virtual thread per task, at most max-threads in flight;
+ *             further submitters wait. Needs a Java 21 runtime; on older
+ *             runtimes the platform pool is used and a warning logged.
+ *
+ * Metrics (Micrometer):
+ *  clinic.notification.executor.active    — tasks running
+ *  clinic.notification.executor.queued    — tasks waiting (platform mode)
+ *  clinic.notification.executor.rejected  — tasks shed or run by the caller
+ * Send latency is timed where mail is sent (clinic.notification.send).
+ */
+@Configuration
+@Slf4j
+public class NotificationExecutorConfig {
+
+    @Value("${clinic.notification.executor.mode:platform}")
+    private String mode;
+
+    @Value("${clinic.notification.executor.core-threads:2}")
+    private int coreThreads;
+
+    @Value("${clinic.notification.executor.max-threads:8}")
+    private int maxThreads;
+
+    @Value("${clinic.notification.executor.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${clinic.notification.executor.rejection-policy:shed}")
+    private String rejectionPolicy;
+
+    @Bean(name = "notificationExecutor")
+    public TaskExecutor notificationExecutor(MeterRegistry registry) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("clinic.notification.executor.active", active, AtomicInteger::get)
+                .description("Notification tasks currently running")
+                .register(registry);
+        TaskDecorator tracking = task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+
+        if ("virtual".equalsIgnoreCase(mode)) {
+            try {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notify-");
+                executor.setVirtualThreads(true);
+                executor.setConcurrencyLimit(maxThreads);
+                executor.setTaskDecorator(tracking);
+                log.info("Notification executor: virtual threads, {} in flight max", maxThreads);
+                return executor;
+            } catch (UnsupportedOperationException e) {
+                log.warn("Virtual threads need Java 21+ (running {}); using the platform pool",
+                        Runtime.version().feature());
+            }
+        }
+
+        Counter rejected = Counter.builder("clinic.notification.executor.rejected")
+                .tag("policy", rejectionPolicy)
+                .description("Notification tasks shed or run by the caller because the executor was full")
+                .register(registry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("notify-");
+        executor.setCorePoolSize(coreThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(tracking);
+        executor.setRejectedExecutionHandler(counting(rejected, rejectionHandler()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        Gauge.builder("clinic.notification.executor.queued", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Notification tasks waiting for a thread")
+                .register(registry);
+        log.info("Notification executor: {}-{} threads, queue {}, {} when full",
+                coreThreads, maxThreads, queueCapacity, rejectionPolicy);
+        return executor;
+    }
+
+    private RejectedExecutionHandler rejectionHandler() {
+        return switch (rejectionPolicy) {
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "shed" -> new ThreadPoolExecutor.DiscardPolicy();
+            default -> throw new IllegalStateException(
+                    "clinic.notification.executor.rejection-policy must be shed or caller-runs: " + rejectionPolicy);
+        };
+    }
+
+    private static RejectedExecutionHandler counting(Counter rejected, RejectedExecutionHandler delegate) {
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn("Notification executor full ({} queued), task {}",
+                    pool.getQueue().size(), delegate instanceof ThreadPoolExecutor.CallerRunsPolicy
+                            ? "run by caller" : "shed");
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.clinic.config;
+
+import com.clinic.repository.QueueEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * QueueNumberConstraintCheck — reports a missing uk_queue_doctor_date_number.
+ *
+ * Queue numbers used to be MAX()+1 per check-in, which could hand two
+ * patients the same number. ddl-auto=update cannot add the unique constraint
+ * over such rows and only logs a warning, leaving QueueNumberAllocator
+ * without its multi-node backstop. When the constraint is missing this
+ * counts the duplicated entries and logs an error; renumber them and restart
+ * to have the constraint created.
+ *
+ * PostgreSQL only (other databases here are created empty). The duplicate
+ * scan runs only while the constraint is missing — a catalog lookup otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueueNumberConstraintCheck implements ApplicationRunner {
+
+    static final String CONSTRAINT = "uk_queue_doctor_date_number";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QueueEntryRepository queueEntryRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c ->
+                c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) return;
+
+        Boolean present = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, CONSTRAINT);
+        if (Boolean.TRUE.equals(present)) return;
+
+        long duplicates = queueEntryRepository.countDuplicateQueueNumbers();
+        if (duplicates > 0) {
+            log.error("{} is missing: {} queue entries share their doctor, date and queue number",
+                    CONSTRAINT, duplicates);
+        } else {
+            log.error("{} is missing although no queue numbers are duplicated; check the schema update log",
+                    CONSTRAINT);
+        }
+    }
+}
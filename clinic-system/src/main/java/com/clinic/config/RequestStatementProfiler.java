@@ -0,0 +1,150 @@
+package com.clinic.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * RequestStatementProfiler — counts the SQL statements Hibernate prepares
+ * on behalf of each HTTP request.
+ *
+ * Registered as Hibernate's StatementInspector (StatementBudgetConfig), so
+ * it sees every statement of every session, including lazy loads triggered
+ * while the view renders (open-in-view). Only statements on a thread
+ * between begin() and end() — i.e. inside StatementBudgetFilter — are
+ * counted; schedulers and executor threads are ignored. A JDBC batch is
+ * prepared once and counts once; second-level cache hits run no SQL.
+ *
+ * Per request it also keeps how often each distinct SQL string ran:
+ * Hibernate renders parameters as '?', so one statement repeated with
+ * different ids is the N+1 signature.
+ *
+ * Totals per endpoint ("GET /admin/dashboard") back SqlStatementsEndpoint.
+ */
+public class RequestStatementProfiler implements StatementInspector {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, EndpointTotals> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements current = CURRENT.get();
+        if (current != null) {
+            current.record(sql);
+        }
+        return sql;
+    }
+
+    // ─── Request scope ────────────────────────────────────────────────────────
+
+    public void begin() {
+        CURRENT.set(new RequestStatements());
+    }
+
+    /** Stops counting on this thread and adds the request to its endpoint's totals. */
+    public RequestStatements end(String endpoint, int budget) {
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+        if (statements == null) {
+            statements = new RequestStatements();
+        }
+        endpoints.computeIfAbsent(endpoint, EndpointTotals::new).add(statements, budget);
+        return statements;
+    }
+
+    // ─── Report ───────────────────────────────────────────────────────────────
+
+    /** Endpoints ordered by the most statements one request has run, then by mean. */
+    public List<EndpointSummary> worstEndpoints(int limit) {
+        return endpoints.values().stream()
+                .map(EndpointTotals::summary)
+                .sorted(Comparator.comparingLong(EndpointSummary::maxStatements)
+                        .thenComparingDouble(EndpointSummary::meanStatements)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    // ─── Types ────────────────────────────────────────────────────────────────
+
+    /** Statements of one request; used by a single thread. */
+    public static final class RequestStatements {
+
+        private final Map<String, Integer> bySql = new HashMap<>();
+        private int count;
+
+        void record(String sql) {
+            count++;
+            bySql.merge(sql, 1, Integer::sum);
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /** The statement run most often, or empty if none ran. */
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return bySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+    }
+
+    /**
+     * @param mostRepeatedSql   the statement repeated most within one request
+     *                          of this endpoint so far, with its count
+     */
+    public record EndpointSummary(String endpoint,
+                                  long requests,
+                                  long maxStatements,
+                                  double meanStatements,
+                                  long overBudget,
+                                  String mostRepeatedSql,
+                                  long mostRepeatedCount) {
+    }
+
+    private static final class EndpointTotals {
+
+        private final String endpoint;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong statements = new AtomicLong();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final AtomicLong overBudget = new AtomicLong();
+        private volatile String mostRepeatedSql;
+        private volatile int mostRepeatedCount;
+
+        EndpointTotals(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void add(RequestStatements request, int budget) {
+            requests.incrementAndGet();
+            statements.addAndGet(request.count());
+            maxStatements.accumulate(request.count());
+            if (request.count() > budget) {
+                overBudget.incrementAndGet();
+            }
+            request.mostRepeated().ifPresent(e -> {
+                synchronized (this) {
+                    if (e.getValue() > mostRepeatedCount) {
+                        mostRepeatedSql = e.getKey();
+                        mostRepeatedCount = e.getValue();
+                    }
+                }
+            });
+        }
+
+        EndpointSummary summary() {
+            long n = requests.get();
+            return new EndpointSummary(endpoint, n, maxStatements.get(),
+                    n == 0 ? 0 : (double) statements.get() / n,
+                    overBudget.get(), mostRepeatedSql, mostRepeatedCount);
+        }
+    }
+}
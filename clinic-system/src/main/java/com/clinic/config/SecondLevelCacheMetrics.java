@@ -0,0 +1,62 @@
+package com.clinic.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * SecondLevelCacheMetrics — Hibernate second-level cache statistics per
+ * region (regions in application.conf), under /actuator/metrics:
+ *
+ *  clinic.cache.l2.hit.ratio{region}              — hits / (hits + misses)
+ *  clinic.cache.l2.requests{region,result=hit}    — lookups served from cache
+ *  clinic.cache.l2.requests{region,result=miss}   — lookups that went to the database
+ *  clinic.cache.l2.puts{region}                   — entries stored
+ *
+ * Needs hibernate.generate_statistics=true; without it every value stays 0.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) continue;
+
+            Gauge.builder("clinic.cache.l2.hit.ratio", stats, SecondLevelCacheMetrics::hitRatio)
+                    .tag("region", region)
+                    .description("Second-level cache hit ratio since start")
+                    .register(registry);
+            FunctionCounter.builder("clinic.cache.l2.requests", stats, CacheRegionStatistics::getHitCount)
+                    .tags("region", region, "result", "hit")
+                    .description("Second-level cache lookups")
+                    .register(registry);
+            FunctionCounter.builder("clinic.cache.l2.requests", stats, CacheRegionStatistics::getMissCount)
+                    .tags("region", region, "result", "miss")
+                    .description("Second-level cache lookups")
+                    .register(registry);
+            FunctionCounter.builder("clinic.cache.l2.puts", stats, CacheRegionStatistics::getPutCount)
+                    .tag("region", region)
+                    .description("Entries stored in the second-level cache")
+                    .register(registry);
+        }
+    }
+
+    private static double hitRatio(CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long requests = hits + stats.getMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,67 @@
+package com.clinic.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/**
+ * SequenceAligner — moves each entity id sequence past the ids already in
+ * its table.
+ *
+ * Entities draw ids from per-table sequences (pooled optimizer, allocation
+ * 50) so Hibernate can batch inserts. Tables created when ids were IDENTITY
+ * already hold rows, while ddl-auto=update creates the new sequences at 1;
+ * without this step the first inserts would collide with existing keys.
+ *
+ * Runs while the context starts — before the web server accepts requests
+ * and before schedulers or runners insert anything. PostgreSQL only (other
+ * databases here are created empty); it never moves a sequence backwards,
+ * so every start after the first is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceAligner {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c ->
+                c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) return;
+
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            SequenceGenerator sequence = idSequence(type);
+            if (table == null || sequence == null) continue;
+
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval(?, GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table.name() + ") + ?,"
+                            + " (SELECT last_value FROM " + sequence.sequenceName() + ")))",
+                    Long.class, sequence.sequenceName(), sequence.allocationSize());
+            log.debug("Sequence {} at {}", sequence.sequenceName(), value);
+        }
+    }
+
+    private static SequenceGenerator idSequence(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Id.class)) {
+                return field.getAnnotation(SequenceGenerator.class);
+            }
+        }
+        return null;
+    }
+}
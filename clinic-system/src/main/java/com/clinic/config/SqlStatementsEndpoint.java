@@ -0,0 +1,38 @@
+package com.clinic.config;
+
+import com.clinic.config.RequestStatementProfiler.EndpointSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * SqlStatementsEndpoint — /actuator/sqlstatements (clinic.sql.budget.enabled;
+ * not in the default web exposure list).
+ *
+ *  GET    /actuator/sqlstatements?limit=20 — endpoints with the most SQL
+ *         statements per request: max, mean, requests over budget and the
+ *         statement repeated most within one request
+ *  DELETE /actuator/sqlstatements          — clears the totals
+ */
+@Endpoint(id = "sqlstatements")
+@RequiredArgsConstructor
+public class SqlStatementsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final RequestStatementProfiler profiler;
+
+    @ReadOperation
+    public List<EndpointSummary> worstEndpoints(@Nullable Integer limit) {
+        return profiler.worstEndpoints(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,65 @@
+package com.clinic.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * StatementBudgetConfig — per-request SQL statement budget, only when
+ * clinic.sql.budget.enabled=true (off by default, on in the test profile).
+ * Without it no inspector, filter or endpoint is registered. The base
+ * properties activate the dev profile, so a profile check would not keep
+ * this out of a deployment that forgets to override it.
+ *
+ *  clinic.sql.budget.max-statements    — statements one request may run
+ *  clinic.sql.budget.on-exceed         — log | fail (StatementBudgetFilter)
+ *  clinic.sql.budget.repeat-threshold  — repeats of one statement in one
+ *                                        request reported as a likely N+1
+ *
+ * RequestStatementProfiler is handed to Hibernate as the session factory's
+ * StatementInspector; the filter runs ahead of Spring Security so login and
+ * principal lookups count towards the request. /actuator/sqlstatements
+ * must also be added to management.endpoints.web.exposure.include.
+ */
+@Configuration
+@ConditionalOnProperty(name = "clinic.sql.budget.enabled", havingValue = "true")
+public class StatementBudgetConfig {
+
+    @Value("${clinic.sql.budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${clinic.sql.budget.on-exceed:log}")
+    private String onExceed;
+
+    @Value("${clinic.sql.budget.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Bean
+    public RequestStatementProfiler requestStatementProfiler() {
+        return new RequestStatementProfiler();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(RequestStatementProfiler profiler) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, profiler);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(RequestStatementProfiler profiler) {
+        StatementBudgetFilter filter = new StatementBudgetFilter(profiler, maxStatements,
+                "fail".equalsIgnoreCase(onExceed), repeatThreshold);
+        FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public SqlStatementsEndpoint sqlStatementsEndpoint(RequestStatementProfiler profiler) {
+        return new SqlStatementsEndpoint(profiler);
+    }
+}
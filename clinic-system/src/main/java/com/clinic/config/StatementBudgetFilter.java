@@ -0,0 +1,81 @@
+package com.clinic.config;
+
+import com.clinic.config.RequestStatementProfiler.RequestStatements;
+import com.clinic.exception.StatementBudgetExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * StatementBudgetFilter — enforces clinic.sql.budget.* per HTTP request.
+ *
+ * Wraps the whole chain (security included) and the view render. When a
+ * request has run:
+ *  - more than max-statements statements: logs a warning, or with
+ *    on-exceed=fail throws StatementBudgetExceededException, so a test
+ *    driving the request fails on the regression
+ *  - one statement repeat-threshold times or more: logs it as a likely N+1
+ *
+ * Requests are keyed by method and mapped pattern ("GET /admin/doctors/{id}"),
+ * so path variables do not multiply the endpoints in the report.
+ * A request that already failed is recorded but not judged.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "[unmapped]";
+
+    private final RequestStatementProfiler profiler;
+    private final int maxStatements;
+    private final boolean failOnExceed;
+    private final int repeatThreshold;
+
+    public StatementBudgetFilter(RequestStatementProfiler profiler, int maxStatements,
+                                 boolean failOnExceed, int repeatThreshold) {
+        this.profiler = profiler;
+        this.maxStatements = maxStatements;
+        this.failOnExceed = failOnExceed;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatements statements;
+        profiler.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = profiler.end(endpoint(request), maxStatements);
+        }
+        check(endpoint(request), statements);
+    }
+
+    private void check(String endpoint, RequestStatements statements) {
+        statements.mostRepeated()
+                .filter(e -> e.getValue() >= repeatThreshold)
+                .ifPresent(e -> log.warn("Possible N+1 on {}: statement ran {} times: {}", endpoint, e.getValue(), e.getKey()));
+
+        if (statements.count() > maxStatements) {
+            String message = endpoint + " ran " + statements.count() +
+                    " SQL statements, budget is " + maxStatements;
+            if (failOnExceed) {
+                throw new StatementBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED);
+    }
+}
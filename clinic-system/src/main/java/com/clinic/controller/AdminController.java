@@ -1,16 +1,32 @@
 package com.clinic.controller;
 
+import com.clinic.dto.response.QueueBoardSnapshot;
 import com.clinic.repository.UserRepository;
 import com.clinic.service.*;
+import com.clinic.service.support.QueueBoard;
+import com.clinic.util.AppointmentExportWriter;
+import com.clinic.util.ClinicContextHolder;
 import com.clinic.util.SecurityUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 /**
@@ -28,8 +44,11 @@ import java.time.LocalDate;
  *   /admin/doctors             — doctor management
  *   /admin/doctors/{id}        — doctor detail / schedule
  *   /admin/queue               — live all-doctor queue view
+ *   /admin/queue/board         — clinic queue board for waiting-room screens
+ *                                (polls /admin/queue/board/data, ETag / 304)
  *   /admin/queue/{doctorId}    — specific doctor queue
  *   /admin/appointments        — all appointments with filters
+ *   /admin/appointments/export — streamed CSV / NDJSON download of a date range
  *   /admin/users               — user management
  *   /admin/reports             — daily/range reports
  */
@@ -46,6 +65,8 @@ public class AdminController {
     private final AdminReportService reportService;
     private final ClinicService clinicService;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final QueueBoard queueBoard;
 
 
 
@@ -88,6 +109,26 @@ public class AdminController {
         return "admin/queue-overview";
     }
 
+    @GetMapping("/queue/board")
+    public String queueBoard(Model model) {
+        model.addAttribute("board", queueBoard.snapshot(ClinicContextHolder.getRequiredClinic().getId()));
+        return "admin/queue-board";
+    }
+
+    /**
+     * The board as JSON for polling screens. The snapshot is shared and
+     * rebuilt only on queue changes; a poll whose If-None-Match still
+     * matches gets 304 with no body.
+     */
+    @GetMapping("/queue/board/data")
+    public ResponseEntity<QueueBoardSnapshot> queueBoardData() {
+        QueueBoardSnapshot board = queueBoard.snapshot(ClinicContextHolder.getRequiredClinic().getId());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(board.etag())
+                .body(board);
+    }
+
     @GetMapping("/queue/{doctorId}")
     public String doctorQueue(@PathVariable Long doctorId,
                                @RequestParam(required = false)
@@ -171,6 +212,46 @@ public class AdminController {
     }
 
 
+    /**
+     * Streams the clinic's appointments in [from, to] as a CSV or NDJSON
+     * download. Rows go from a database cursor straight to the response
+     * as they are read, so a quarter or a year costs no more heap than a
+     * day and the first bytes leave right after the header.
+     */
+    @GetMapping("/appointments/export")
+    public void exportAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        AppointmentExportWriter.Format exportFormat;
+        try {
+            exportFormat = AppointmentExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "format must be csv or ndjson");
+            return;
+        }
+        if (to.isBefore(from)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "to must not be before from");
+            return;
+        }
+        Long clinicId = userService.getClinicIdByUserId(SecurityUtils.getCurrentUserId());
+
+        response.setContentType(exportFormat.contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("appointments-" + from + "-to-" + to + "." + exportFormat.extension)
+                .build().toString());
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        AppointmentExportWriter writer = new AppointmentExportWriter(exportFormat, out, objectMapper);
+        writer.begin();
+        out.flush();
+        appointmentService.exportAppointmentsByDateRange(clinicId, from, to, writer);
+        out.flush();
+    }
+
     @PostMapping("/appointments/{id}/cancel")
     public String adminCancelAppointment(@PathVariable Long id,
                                           @RequestParam String reason,
@@ -2,20 +2,26 @@ package com.clinic.controller;
 
 import com.clinic.dto.request.AppointmentBookRequest;
 import com.clinic.dto.request.AppointmentRescheduleRequest;
+import com.clinic.dto.response.AppointmentPage;
+import com.clinic.exception.ResourceNotFoundException;
 import com.clinic.model.entity.User;
 import com.clinic.repository.UserRepository;
 import com.clinic.service.AppointmentService;
 import com.clinic.service.DoctorService;
 import com.clinic.service.QueueService;
+import com.clinic.service.support.QueueStatusStream;
 import com.clinic.util.SecurityUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
@@ -27,12 +33,13 @@ import java.time.LocalDate;
  *
  * Paths:
  *   /patient/dashboard              — upcoming appointments + queue status
- *   /patient/appointments           — full history
+ *   /patient/appointments           — history, newest first, keyset-paginated (?cursor=)
  *   /patient/appointments/book      — booking form
  *   /patient/appointments/{id}      — view detail
  *   /patient/appointments/{id}/reschedule  — reschedule form
  *   /patient/appointments/{id}/cancel      — cancel
  *   /patient/queue                  — real-time queue position
+ *   /patient/queue/stream           — SSE updates for the queue page
  *   /patient/doctors                — browse available doctors
  */
 @Controller
@@ -44,6 +51,7 @@ public class PatientController {
     private final AppointmentService appointmentService;
     private final DoctorService doctorService;
     private final QueueService queueService;
+    private final QueueStatusStream queueStatusStream;
 
     // ─── Dashboard ─────────────────────────────────────────────────────────────
 
@@ -64,10 +72,21 @@ public class PatientController {
 
     // ─── Appointment List ─────────────────────────────────────────────────────
 
+    /** History one page at a time; "Older" links carry the cursor of the last row shown. */
     @GetMapping("/appointments")
-    public String appointmentHistory(Model model) {
-        model.addAttribute("appointments",
-                appointmentService.getPatientAppointments(SecurityUtils.getCurrentUserId()));
+    public String appointmentHistory(@RequestParam(required = false) String cursor,
+                                     Model model,
+                                     RedirectAttributes redirectAttributes) {
+        AppointmentPage page;
+        try {
+            page = appointmentService.getPatientAppointments(SecurityUtils.getCurrentUserId(), cursor);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMsg", "That page link is no longer valid.");
+            return "redirect:/patient/appointments";
+        }
+        model.addAttribute("appointments", page.getAppointments());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         return "patient/appointments";
     }
 
@@ -165,8 +184,8 @@ public class PatientController {
 
     /**
      * Real-time queue position page.
-     * Thymeleaf template uses <meta http-equiv="refresh" content="30">
-     * to auto-refresh every 30 seconds without JavaScript.
+     * The page subscribes to /patient/queue/stream and updates in place;
+     * without JavaScript it offers a manual refresh link.
      */
     @GetMapping("/queue")
     public String queueStatus(Model model) {
@@ -179,6 +198,20 @@ public class PatientController {
         return "patient/queue-status";
     }
 
+    /**
+     * Server-Sent Events: pushes position and wait-time changes for the
+     * patient's active queue entry. 204 tells EventSource not to reconnect.
+     */
+    @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> queueStream() {
+        try {
+            return ResponseEntity.ok(queueStatusStream.subscribe(
+                    queueService.getMyQueueStatus(SecurityUtils.getCurrentUserId(), LocalDate.now())));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
     // ─── Browse Doctors ───────────────────────────────────────────────────────
 
     @GetMapping("/doctors")
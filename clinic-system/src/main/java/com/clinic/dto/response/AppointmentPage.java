@@ -0,0 +1,22 @@
+package com.clinic.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * AppointmentPage — one page of a keyset-paginated appointment list.
+ * nextCursor is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentPage {
+    private List<AppointmentResponse> appointments;
+    private String nextCursor;
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
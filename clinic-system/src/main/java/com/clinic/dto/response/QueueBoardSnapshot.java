@@ -0,0 +1,40 @@
+package com.clinic.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One clinic's queue board at a point in time — immutable, shared by every
+ * viewer until the next queue change (QueueBoard).
+ *
+ * Rows carry queue numbers only, never patient names: the board is meant
+ * for waiting-room screens.
+ *
+ * @param etag strong validator for /admin/queue/board/data, unique per build
+ */
+public record QueueBoardSnapshot(Long clinicId,
+                                 LocalDate date,
+                                 LocalDateTime generatedAt,
+                                 List<DoctorRow> doctors,
+                                 @JsonIgnore String etag) {
+
+    public QueueBoardSnapshot {
+        doctors = List.copyOf(doctors);
+    }
+
+    /**
+     * @param currentNumber queue number in consultation, or null
+     * @param nextNumber    first WAITING queue number, or null
+     */
+    public record DoctorRow(Long doctorId,
+                            String doctorName,
+                            String specialization,
+                            String consultationRoom,
+                            Integer currentNumber,
+                            Integer nextNumber,
+                            int waiting) {
+    }
+}
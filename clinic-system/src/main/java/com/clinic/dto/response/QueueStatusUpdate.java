@@ -0,0 +1,25 @@
+package com.clinic.dto.response;
+
+import lombok.*;
+
+/**
+ * The part of a patient's queue status that changes while they wait.
+ * Pushed over /patient/queue/stream whenever it differs from the last one sent.
+ */
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class QueueStatusUpdate {
+    private int queueNumber;
+    private String status;
+    private int patientsAhead;
+    private int estimatedWaitMinutes;
+
+    public static QueueStatusUpdate of(QueueEntryResponse entry) {
+        return new QueueStatusUpdate(entry.getQueueNumber(), entry.getStatus(),
+                entry.getPatientsAhead(), entry.getEstimatedWaitMinutes());
+    }
+
+    /** WAITING or IN_CONSULT — the stream stays open only while this holds. */
+    public boolean isActive() {
+        return "WAITING".equals(status) || "IN_CONSULT".equals(status);
+    }
+}
@@ -0,0 +1,5 @@
+package com.clinic.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) { super(message); }
+}
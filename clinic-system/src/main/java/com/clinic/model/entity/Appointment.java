@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 /**
@@ -19,19 +20,28 @@ import java.time.LocalTime;
  * Reminder flow:
  *  reminderSent = false initially.
  *  The AppointmentReminderScheduler flips it to true after sending email/SMS.
+ *  It finds due reminders through reminderDueAt (see below), an index range
+ *  scan whose cost follows the number of due reminders, not the table size.
  */
 @Entity
 @Table(name = "appointments",
         indexes = {
-            @Index(name = "idx_appointment_clinic_date",  columnList = "clinic_id, appointment_date"),
-            @Index(name = "idx_appointment_doctor_date",  columnList = "doctor_id, appointment_date"),
-            @Index(name = "idx_appointment_patient",      columnList = "patient_id")
-        })
+            @Index(name = "idx_appointment_clinic_date",     columnList = "clinic_id, appointment_date"),
+            @Index(name = "idx_appointment_doctor_date",     columnList = "doctor_id, appointment_date"),
+            @Index(name = "idx_appointment_patient_history", columnList = "patient_id, appointment_date, appointment_time, id"),
+            @Index(name = "idx_appointment_reminder_due",    columnList = "reminder_due_at, id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = Appointment.ACTIVE_SLOT_CONSTRAINT,
+                columnNames = {"doctor_id", "appointment_date", "appointment_time", "slot_held"}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Appointment extends BaseEntity {
 
+    /** Unique (doctor, date, time, slot_held) — see slotHeld. */
+    public static final String ACTIVE_SLOT_CONSTRAINT = "uk_appointment_active_slot";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -77,9 +87,49 @@ public class Appointment extends BaseEntity {
     @Column(length = 300)
     private String cancellationReason;
 
+    /**
+     * TRUE while the status holds the slot (PENDING / CONFIRMED / CHECKED_IN),
+     * NULL otherwise. NULLs never collide in a unique constraint, so
+     * uk_appointment_active_slot acts as a partial unique index over active
+     * slots — the database backstop for BR-001. Maintained by syncDerivedColumns();
+     * rows older than the column are filled by AppointmentBackfill.
+     *
+     * ddl-auto=update creates the constraint on a best-effort basis: if it
+     * cannot (e.g. duplicate active slots already carry slot_held = TRUE),
+     * Hibernate logs a warning and starts without it. After a schema change
+     * check that uk_appointment_active_slot exists.
+     */
+    @Column(name = "slot_held")
+    private Boolean slotHeld;
+
+    /** appointmentDate + appointmentTime as one comparable column. Maintained by syncDerivedColumns(). */
+    @Column(name = "starts_at")
+    private LocalDateTime startsAt;
+
+    /**
+     * startsAt while the appointment is CONFIRMED and its reminder not yet
+     * sent, NULL otherwise. idx_appointment_reminder_due still has an entry
+     * for every row (B-trees index NULLs), but NULLs sort after every
+     * timestamp, so the reminder query's range reminder_due_at <= cutoff
+     * only visits rows still owed a reminder. Maintained by
+     * syncDerivedColumns(); bulk updates of status or reminderSent must
+     * clear it themselves.
+     */
+    @Column(name = "reminder_due_at")
+    private LocalDateTime reminderDueAt;
+
     // ─── Relationships ───────────────────────────────────────────────────────
 
     /** Created when patient checks in at the clinic */
     @OneToOne(mappedBy = "appointment", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private QueueEntry queueEntry;
+
+    @PrePersist
+    @PreUpdate
+    void syncDerivedColumns() {
+        slotHeld = status != null && status.holdsSlot() ? Boolean.TRUE : null;
+        startsAt = appointmentDate != null && appointmentTime != null
+                ? appointmentDate.atTime(appointmentTime) : null;
+        reminderDueAt = status == AppointmentStatus.CONFIRMED && !reminderSent ? startsAt : null;
+    }
 }
@@ -3,6 +3,10 @@ package com.clinic.model.entity;
 import com.clinic.model.enums.ClinicStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +34,8 @@ import java.util.List;
  *  maxDoctors      — platform-enforced cap set by super admin (per plan/subscription)
  *  subscriptionPlan — BASIC / STANDARD / PREMIUM (for future billing)
  *  notes           — super admin internal notes about this clinic
+ *
+ * Second-level cached (regions clinics, clinics_by_code in application.conf).
  */
 @Entity
 @Table(name = "clinics",
@@ -37,11 +43,15 @@ import java.util.List;
             @UniqueConstraint(columnNames = "registrationCode"),
             @UniqueConstraint(columnNames = "email")
         })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clinics")
+@NaturalIdCache(region = "clinics_by_code")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Clinic extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clinics_seq")
+    @SequenceGenerator(name = "clinics_seq", sequenceName = "clinics_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -51,7 +61,9 @@ public class Clinic extends BaseEntity {
      * Unique short code assigned by SUPER_ADMIN.
      * Used in reports and logs to identify the clinic without exposing full name.
      * Example: "KFC-001", "PKR-002"
+     * Natural id: findByRegistrationCode resolves it through the natural-id cache.
      */
+    @NaturalId
     @Column(nullable = false, unique = true, length = 20)
     private String registrationCode;
 
@@ -0,0 +1,64 @@
+package com.clinic.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * DailyClinicStats — per-clinic, per-day report counters (rollup table).
+ *
+ * Maintained incrementally by DailyStatsRecorder in the same transaction as
+ * the appointment / queue change it counts, so report pages read a handful
+ * of rows instead of scanning appointments and queue entries.
+ *
+ * Appointment counters hold how many of the day's appointments are
+ * currently in each status: a transition moves one unit between counters,
+ * a reschedule moves it between dates.
+ *
+ * Rebuilt from source tables by DailyStatsRebuilder
+ * (run the app with --rebuild-daily-stats=FROM[:TO]).
+ */
+@Entity
+@Table(name = "daily_clinic_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_stats_clinic_date",
+                columnNames = {"clinic_id", "stat_date"}),
+        indexes = @Index(name = "idx_daily_stats_date", columnList = "stat_date"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DailyClinicStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_clinic_stats_seq")
+    @SequenceGenerator(name = "daily_clinic_stats_seq", sequenceName = "daily_clinic_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "clinic_id", nullable = false)
+    private Clinic clinic;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // ─── Appointments by current status ───────────────────────────────────────
+
+    private long pendingCount;
+    private long confirmedCount;
+    private long checkedInCount;
+    private long completedCount;
+    private long cancelledCount;
+    private long noShowCount;
+
+    // ─── Queue ────────────────────────────────────────────────────────────────
+
+    /** Queue entries without an appointment (QR-004) */
+    private long walkInCount;
+
+    /** Queue entries created by checking in against an appointment */
+    private long checkInCount;
+
+    /** Entries that reached consultation — the divisor for average wait */
+    private long waitedCount;
+
+    /** Sum of check-in → consult-start over waitedCount entries, in seconds */
+    private long waitSeconds;
+}
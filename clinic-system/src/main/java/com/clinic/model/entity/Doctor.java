@@ -2,6 +2,10 @@ package com.clinic.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,16 +19,25 @@ import java.util.List;
  *   - maxDailyAppointments: clinic-configurable cap per doctor per day
  *
  * Linked to DoctorSchedule for structured weekly availability.
+ *
+ * Second-level cached with its schedules collection (regions doctors,
+ * doctors_by_user, doctor_schedule_sets in application.conf).
  */
 @Entity
 @Table(name = "doctors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
+@NaturalIdCache(region = "doctors_by_user")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Doctor extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctors_seq")
+    @SequenceGenerator(name = "doctors_seq", sequenceName = "doctors_seq", allocationSize = 50)
     private Long id;
 
+    /** Natural id: findByUserId resolves it through the natural-id cache. */
+    @NaturalId
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
@@ -62,6 +75,7 @@ public class Doctor extends BaseEntity {
 
     // ─── Relationships ───────────────────────────────────────────────────────
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor_schedule_sets")
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<DoctorSchedule> schedules = new ArrayList<>();
 
@@ -2,6 +2,8 @@ package com.clinic.model.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
@@ -14,14 +16,19 @@ import java.time.LocalTime;
  *
  * The AppointmentService uses this to generate available time slots
  * and prevent bookings outside defined hours (anti-conflict logic).
+ *
+ * Second-level cached (region doctor_schedules in application.conf).
  */
 @Entity
 @Table(name = "doctor_schedules")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor_schedules")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class DoctorSchedule extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_schedules_seq")
+    @SequenceGenerator(name = "doctor_schedules_seq", sequenceName = "doctor_schedules_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,62 @@
+package com.clinic.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxMessage — an email waiting to be sent (transactional outbox).
+ *
+ * Written by NotificationService in the same transaction as the booking,
+ * reschedule or cancellation it announces, so a message exists exactly when
+ * the change commits and the request never waits for the mail server.
+ * NotificationOutbox drains the table in batches: a sent message is deleted
+ * and audited in the Notification table; a failed one is retried after
+ * availableAt until clinic.notification.max-attempts is reached.
+ *
+ * The message is rendered when it is queued, so it describes the
+ * appointment as it was at that moment.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_outbox_available", columnList = "available_at, id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxMessage extends BaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /** Recipient account — copied onto the Notification audit row */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** Recipient address, captured so dispatch need not load the user */
+    @Column(nullable = false, length = 150)
+    private String recipient;
+
+    /** CONFIRMATION | RESCHEDULE | CANCELLATION */
+    @Column(nullable = false, length = 30)
+    private String type;
+
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    @Column(nullable = false, length = 2000)
+    private String body;
+
+    /** Failed send attempts so far */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Not picked up by the dispatcher before this time (retry back-off) */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    /** Error from the last failed attempt */
+    @Column(length = 500)
+    private String lastError;
+}
@@ -15,24 +15,36 @@ import java.time.LocalDateTime;
  *  b) Admin registers a walk-in patient directly.
  *
  * Queue position logic:
- *  queueNumber is auto-assigned as (max queueNumber for doctor+date) + 1.
- *  The QueueService exposes this number to the patient in real-time via
- *  the Thymeleaf page (auto-refreshed every 30 seconds via meta refresh).
+ *  queueNumber is handed out by QueueNumberAllocator: an in-memory counter
+ *  per doctor+date, seeded once from (max queueNumber for doctor+date).
+ *  The QueueService exposes this number to the patient in real-time: the
+ *  Thymeleaf page opens a Server-Sent Events stream (QueueStatusStream)
+ *  that pushes position and wait changes as they happen.
+ *  For today, status changes are applied in QueueEngine first and written
+ *  back to this table in batches by QueueWriteBehindScheduler.
+ *  uk_queue_doctor_date_number backs the allocator across nodes. Rows from
+ *  the old MAX()+1 allocation may already repeat a number, in which case
+ *  ddl-auto=update skips the constraint with a warning;
+ *  QueueNumberConstraintCheck reports this at startup.
  *
  * Estimated wait:
- *  estimatedWaitMinutes = (queueNumber - currentlyServing) * avgMinutesPerPatient
+ *  estimatedWaitMinutes = patientsAhead * the doctor's expected consult length,
+ *  learned from consultStartTime / consultEndTime by ConsultDurationEstimator
  */
 @Entity
 @Table(name = "queue_entries",
         indexes = {
             @Index(name = "idx_queue_clinic_date",  columnList = "clinic_id, queue_date"),
             @Index(name = "idx_queue_doctor_date",  columnList = "doctor_id, queue_date")
-        })
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_queue_doctor_date_number",
+                columnNames = {"doctor_id", "queue_date", "queue_number"}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class QueueEntry extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "queue_entries_seq")
+    @SequenceGenerator(name = "queue_entries_seq", sequenceName = "queue_entries_seq", allocationSize = 50)
     private Long id;
 
     /** Denormalized tenant FK — same rationale as on Appointment */
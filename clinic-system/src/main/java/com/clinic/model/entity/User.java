@@ -28,7 +28,8 @@ import lombok.*;
 public class User extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -61,13 +62,8 @@ public class User extends BaseEntity {
     @JoinColumn(name = "clinic_id", nullable = true)
     private Clinic clinic;
 
-    // ─── Relationships ───────────────────────────────────────────────────────
-
-    /** Populated only when role == PATIENT */
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Patient patient;
-
-    /** Populated only when role == DOCTOR */
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Doctor doctor;
+    // Patient / Doctor profiles own the user_id FK and are reached through
+    // PatientRepository.findByUserId / DoctorRepository.findByUserId.
+    // No inverse @OneToOne here: Hibernate cannot proxy the non-owning side,
+    // so it would cost two extra SELECTs for every User loaded.
 }
@@ -16,5 +16,10 @@ public enum AppointmentStatus {
     CHECKED_IN,
     COMPLETED,
     CANCELLED,
-    NO_SHOW
+    NO_SHOW;
+
+    /** True for statuses that occupy the doctor's time slot (BR-001 / BR-003). */
+    public boolean holdsSlot() {
+        return this == PENDING || this == CONFIRMED || this == CHECKED_IN;
+    }
 }
@@ -1,19 +1,31 @@
 package com.clinic.repository;
 
+import com.clinic.dto.response.AppointmentResponse;
 import com.clinic.model.entity.Appointment;
 import com.clinic.model.entity.Clinic;
 import com.clinic.model.entity.Doctor;
 import com.clinic.model.entity.Patient;
 import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.repository.projection.ClinicDay;
+import com.clinic.repository.projection.DailyStatusCount;
+import com.clinic.repository.projection.DoctorDayLoad;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * AppointmentRepository — Persistence Layer for Appointment entity.
@@ -24,80 +36,272 @@ import java.util.List;
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    // ─── Conflict Detection ──────────────────────────────────────────────────
+    // ─── Booking admission ──────────────────────────────────────────────────
 
+    /**
+     * Booking admission in one round trip: active appointments for the
+     * doctor/day (BR-003) and how many of them sit on the requested time
+     * (BR-001). excludeId leaves out the appointment being rescheduled.
+     */
     @Query("""
-            SELECT COUNT(a) > 0
+            SELECT new com.clinic.repository.projection.DoctorDayLoad(
+                       COUNT(a),
+                       COALESCE(SUM(CASE WHEN a.appointmentTime = :time THEN 1L ELSE 0L END), 0L))
             FROM Appointment a
             WHERE a.doctor = :doctor
               AND a.appointmentDate = :date
-              AND a.appointmentTime = :time
               AND a.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
               AND (:excludeId IS NULL OR a.id <> :excludeId)
             """)
-    boolean existsConflict(
+    DoctorDayLoad findDayLoad(
             @Param("doctor") Doctor doctor,
             @Param("date") LocalDate date,
             @Param("time") LocalTime time,
             @Param("excludeId") Long excludeId
     );
 
-    // ─── Doctor daily cap ─────────────────────────────────────────────────────
-
-    long countByDoctorAndAppointmentDateAndStatusIn(
-            Doctor doctor, LocalDate date, List<AppointmentStatus> statuses);
+    /** Start times held by active appointments — feeds SlotAvailabilityIndex */
+    @Query("""
+            SELECT a.appointmentTime
+            FROM Appointment a
+            WHERE a.doctor = :doctor
+              AND a.appointmentDate = :date
+              AND a.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+            """)
+    List<LocalTime> findBookedTimes(
+            @Param("doctor") Doctor doctor,
+            @Param("date") LocalDate date
+    );
 
     // ─── Clinic-scoped queries (ADMIN) ────────────────────────────────────────
 
-    List<Appointment> findByClinicAndAppointmentDateBetweenOrderByAppointmentDateAscAppointmentTimeAsc(
-            Clinic clinic, LocalDate start, LocalDate end);
-
     long countByClinicAndAppointmentDate(Clinic clinic, LocalDate date);
 
     long countByClinicAndStatus(Clinic clinic, AppointmentStatus status);
 
     // ─── Patient queries ──────────────────────────────────────────────────────
 
-    List<Appointment> findByPatientOrderByAppointmentDateDescAppointmentTimeDesc(Patient patient);
-
     List<Appointment> findByPatientAndStatus(Patient patient, AppointmentStatus status);
 
-    List<Appointment> findByPatientAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAscAppointmentTimeAsc(
-            Patient patient, LocalDate fromDate);
-
     // ─── Doctor queries ───────────────────────────────────────────────────────
 
-    List<Appointment> findByDoctorAndAppointmentDateOrderByAppointmentTimeAsc(
-            Doctor doctor, LocalDate date);
-
-    List<Appointment> findByDoctorAndAppointmentDateBetweenOrderByAppointmentDateAscAppointmentTimeAsc(
-            Doctor doctor, LocalDate start, LocalDate end);
-
     List<Appointment> findByAppointmentDate(LocalDate date);
 
     List<Appointment> findByAppointmentDateBetween(LocalDate from, LocalDate to);
 
 
+    // ─── List views (projected straight into AppointmentResponse) ─────────────
+
+    /**
+     * Select list shared by the list views: one statement joins patient,
+     * doctor and both users, so a list costs the same however long it is
+     * and no entity is loaded. Keep in step with AppointmentMapper.
+     */
+    String APPOINTMENT_RESPONSE = """
+            SELECT new com.clinic.dto.response.AppointmentResponse(
+                       a.id, p.id, pu.fullName, d.id, du.fullName, d.specialization,
+                       a.appointmentDate, a.appointmentTime, CAST(a.status AS String),
+                       a.reason, a.reminderSent, a.cancellationReason)
+            FROM Appointment a
+            JOIN a.patient p JOIN p.user pu
+            JOIN a.doctor d JOIN d.user du
+            """;
+
+    /**
+     * Newest page of a patient's history. Later pages come from
+     * findHistoryPageBefore; both walk idx_appointment_patient_history
+     * backwards and stop after one page, however long the history is.
+     */
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.patient = :patient
+            ORDER BY a.appointmentDate DESC, a.appointmentTime DESC, a.id DESC
+            """)
+    List<AppointmentResponse> findHistoryPage(@Param("patient") Patient patient, Pageable page);
+
+    /**
+     * History page strictly older than the (date, time, id) cursor. The row
+     * value comparison is an index range condition on PostgreSQL, so the scan
+     * starts at the cursor instead of filtering out the pages already shown.
+     */
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.patient = :patient
+              AND (a.appointmentDate, a.appointmentTime, a.id) < (:date, :time, :id)
+            ORDER BY a.appointmentDate DESC, a.appointmentTime DESC, a.id DESC
+            """)
+    List<AppointmentResponse> findHistoryPageBefore(
+            @Param("patient") Patient patient,
+            @Param("date") LocalDate date,
+            @Param("time") LocalTime time,
+            @Param("id") Long id,
+            Pageable page);
+
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.patient = :patient
+              AND a.appointmentDate >= :fromDate
+            ORDER BY a.appointmentDate, a.appointmentTime
+            """)
+    List<AppointmentResponse> findResponsesByPatientFrom(
+            @Param("patient") Patient patient,
+            @Param("fromDate") LocalDate fromDate);
+
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.doctor = :doctor
+              AND a.appointmentDate BETWEEN :start AND :end
+            ORDER BY a.appointmentDate, a.appointmentTime
+            """)
+    List<AppointmentResponse> findResponsesByDoctorBetween(
+            @Param("doctor") Doctor doctor,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.clinic = :clinic
+              AND a.appointmentDate BETWEEN :start AND :end
+            ORDER BY a.appointmentDate, a.appointmentTime
+            """)
+    List<AppointmentResponse> findResponsesByClinicBetween(
+            @Param("clinic") Clinic clinic,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
+    /**
+     * Forward-only cursor over a clinic's appointments for export. Rows are
+     * fetched 1000 at a time (on PostgreSQL only inside a transaction) and,
+     * being DTOs, never enter the persistence context — memory stays flat
+     * whatever the range. Close the stream (try-with-resources).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(APPOINTMENT_RESPONSE + """
+            WHERE a.clinic = :clinic
+              AND a.appointmentDate BETWEEN :start AND :end
+            ORDER BY a.appointmentDate, a.appointmentTime, a.id
+            """)
+    Stream<AppointmentResponse> streamResponsesByClinicBetween(
+            @Param("clinic") Clinic clinic,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end);
+
     // ─── Scheduler queries ────────────────────────────────────────────────────
 
+    /**
+     * One keyset page of reminder candidates: CONFIRMED appointments without a
+     * reminder, starting no later than windowEnd and after the (dueAt, id)
+     * cursor. Start the cursor at (windowStart, 0). reminderDueAt is only set
+     * on such rows, so this is a range scan of idx_appointment_reminder_due.
+     */
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
     @Query("""
             SELECT a FROM Appointment a
-            WHERE a.status = 'CONFIRMED'
-              AND a.reminderSent = false
-              AND CAST(CONCAT(CAST(a.appointmentDate AS string), 'T', CAST(a.appointmentTime AS string)) AS java.time.LocalDateTime)
-                  BETWEEN :windowStart AND :windowEnd
+            WHERE a.reminderDueAt <= :windowEnd
+              AND (a.reminderDueAt > :afterDueAt
+                   OR (a.reminderDueAt = :afterDueAt AND a.id > :afterId))
+            ORDER BY a.reminderDueAt, a.id
             """)
     List<Appointment> findReminderCandidates(
-            @Param("windowStart") LocalDateTime windowStart,
-            @Param("windowEnd") LocalDateTime windowEnd
+            @Param("windowEnd") LocalDateTime windowEnd,
+            @Param("afterDueAt") LocalDateTime afterDueAt,
+            @Param("afterId") Long afterId,
+            Pageable page
     );
 
+    /** Flags reminders as sent in one statement; clears reminderDueAt as syncDerivedColumns() would. */
+    @Modifying
     @Query("""
-            SELECT a FROM Appointment a
+            UPDATE Appointment a
+            SET a.reminderSent = true, a.reminderDueAt = NULL, a.updatedAt = :now
+            WHERE a.id IN :ids
+            """)
+    int markRemindersSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /** (clinic, date) pairs before today that still have CONFIRMED appointments */
+    @Query("""
+            SELECT DISTINCT new com.clinic.repository.projection.ClinicDay(a.clinic.id, a.appointmentDate)
+            FROM Appointment a
             WHERE a.status = 'CONFIRMED'
               AND a.appointmentDate < :today
+            ORDER BY a.clinic.id, a.appointmentDate
+            """)
+    List<ClinicDay> findOverdueConfirmedDays(@Param("today") LocalDate today);
+
+    @Query("""
+            SELECT a.id FROM Appointment a
+            WHERE a.clinic.id = :clinicId
+              AND a.appointmentDate = :date
+              AND a.status = 'CONFIRMED'
+            """)
+    List<Long> findConfirmedIds(@Param("clinicId") Long clinicId, @Param("date") LocalDate date);
+
+    /**
+     * Moves still-CONFIRMED appointments to NO_SHOW in one statement; clears
+     * slotHeld and reminderDueAt as syncDerivedColumns() would.
+     *
+     * @return rows updated — fewer than ids.size() if some changed meanwhile
+     */
+    @Modifying
+    @Query("""
+            UPDATE Appointment a
+            SET a.status = com.clinic.model.enums.AppointmentStatus.NO_SHOW,
+                a.slotHeld = NULL, a.reminderDueAt = NULL, a.updatedAt = :now
+            WHERE a.id IN :ids
+              AND a.status = 'CONFIRMED'
+            """)
+    int markNoShow(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :ids AND a.status = :status")
+    List<Long> findIdsInStatus(@Param("ids") Collection<Long> ids, @Param("status") AppointmentStatus status);
+
+    /**
+     * One-off backfill of slot_held for rows written before the column
+     * existed. Where several active rows share a slot, only the oldest takes
+     * it; the rest stay NULL (see countUnheldActiveSlots).
+     */
+    @Modifying
+    @Query("""
+            UPDATE Appointment a SET a.slotHeld = TRUE
+            WHERE a.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+              AND a.slotHeld IS NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM Appointment b
+                  WHERE b.doctor = a.doctor
+                    AND b.appointmentDate = a.appointmentDate
+                    AND b.appointmentTime = a.appointmentTime
+                    AND b.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+                    AND b.id < a.id)
             """)
-    List<Appointment> findOverdueConfirmed(@Param("today") LocalDate today);
+    int backfillSlotHeld();
+
+    /** Active appointments outside uk_appointment_active_slot — double bookings left from before BR-001 was enforced. */
+    @Query("""
+            SELECT COUNT(a) FROM Appointment a
+            WHERE a.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+              AND a.slotHeld IS NULL
+            """)
+    long countUnheldActiveSlots();
+
+    /** True while the backfills below are still owed: the lowest id is found through the primary key. */
+    @Query("""
+            SELECT COUNT(a) > 0 FROM Appointment a
+            WHERE a.id = (SELECT MIN(b.id) FROM Appointment b)
+              AND a.startsAt IS NULL
+            """)
+    boolean oldestLacksStartsAt();
+
+    /**
+     * One-off backfill of starts_at / reminder_due_at for rows written before
+     * those columns existed. Touches nothing once every row has starts_at.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Appointment a SET
+                a.startsAt = CAST(CONCAT(CAST(a.appointmentDate AS string), 'T',
+                                         CAST(a.appointmentTime AS string)) AS java.time.LocalDateTime),
+                a.reminderDueAt = CASE WHEN a.status = 'CONFIRMED' AND a.reminderSent = false
+                                       THEN CAST(CONCAT(CAST(a.appointmentDate AS string), 'T',
+                                                        CAST(a.appointmentTime AS string)) AS java.time.LocalDateTime)
+                                       END
+            WHERE a.startsAt IS NULL
+            """)
+    int backfillStartsAt();
 
     // ─── Platform-level (SUPER_ADMIN) ─────────────────────────────────────────
 
@@ -115,6 +319,18 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("from") LocalDate from,
             @Param("to") LocalDate to);
 
+    /** Appointment counts per (clinic, date, status) — daily_clinic_stats rebuild */
+    @Query("""
+            SELECT new com.clinic.repository.projection.DailyStatusCount(
+                       a.clinic.id, a.appointmentDate, a.status, COUNT(a))
+            FROM Appointment a
+            WHERE a.appointmentDate BETWEEN :from AND :to
+            GROUP BY a.clinic.id, a.appointmentDate, a.status
+            """)
+    List<DailyStatusCount> countByClinicDateAndStatus(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
     /** Cross-clinic total appointment count */
     long countByStatus(AppointmentStatus status);
 }
@@ -7,7 +7,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * ClinicRepository — Persistence Layer for Clinic (tenant) entity.
@@ -15,11 +14,10 @@ import java.util.Optional;
  * Used exclusively by SUPER_ADMIN and ClinicService.
  * Clinic-scoped admins never call these methods — they operate
  * within their clinic via clinic-scoped service methods.
+ * findByRegistrationCode is a natural-id lookup (ClinicRepositoryCustomImpl).
  */
 @Repository
-public interface ClinicRepository extends JpaRepository<Clinic, Long> {
-
-    Optional<Clinic> findByRegistrationCode(String registrationCode);
+public interface ClinicRepository extends JpaRepository<Clinic, Long>, ClinicRepositoryCustom {
 
     boolean existsByRegistrationCode(String code);
 
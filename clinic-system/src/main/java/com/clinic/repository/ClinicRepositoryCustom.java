@@ -0,0 +1,14 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.Clinic;
+
+import java.util.Optional;
+
+/**
+ * ClinicRepositoryCustom — lookups Spring Data cannot derive.
+ */
+public interface ClinicRepositoryCustom {
+
+    /** Clinic by its registration code, resolved by natural id (second-level cached). */
+    Optional<Clinic> findByRegistrationCode(String registrationCode);
+}
@@ -0,0 +1,28 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.Clinic;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * ClinicRepositoryCustomImpl — natural-id lookup for Clinic.registrationCode.
+ *
+ * Goes through the clinics_by_code and clinics cache regions before the database.
+ */
+class ClinicRepositoryCustomImpl implements ClinicRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Clinic> findByRegistrationCode(String registrationCode) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Clinic.class)
+                .loadOptional(registrationCode);
+    }
+}
@@ -0,0 +1,86 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.DailyClinicStats;
+import com.clinic.repository.projection.StatsTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailyClinicStatsRepository extends JpaRepository<DailyClinicStats, Long> {
+
+    /**
+     * Creates the zeroed (clinic, date) row unless it exists — PostgreSQL.
+     * A concurrent insert of the same row waits on the unique key and then
+     * does nothing, so the caller's transaction never sees a constraint error.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_clinic_stats (id, clinic_id, stat_date,
+                pending_count, confirmed_count, checked_in_count, completed_count, cancelled_count, no_show_count,
+                walk_in_count, check_in_count, waited_count, wait_seconds)
+            VALUES (nextval('daily_clinic_stats_seq'), :clinicId, :date, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0)
+            ON CONFLICT (clinic_id, stat_date) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("clinicId") Long clinicId, @Param("date") LocalDate date);
+
+    /** insertIfAbsent for databases without ON CONFLICT (H2 in tests and benchmarks). */
+    @Modifying
+    @Query(value = """
+            MERGE INTO daily_clinic_stats s
+            USING (VALUES (CAST(:clinicId AS BIGINT), CAST(:date AS DATE))) v (clinic_id, stat_date)
+            ON s.clinic_id = v.clinic_id AND s.stat_date = v.stat_date
+            WHEN NOT MATCHED THEN INSERT (id, clinic_id, stat_date,
+                pending_count, confirmed_count, checked_in_count, completed_count, cancelled_count, no_show_count,
+                walk_in_count, check_in_count, waited_count, wait_seconds)
+            VALUES (NEXT VALUE FOR daily_clinic_stats_seq, v.clinic_id, v.stat_date, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0)
+            """, nativeQuery = true)
+    int mergeIfAbsent(@Param("clinicId") Long clinicId, @Param("date") LocalDate date);
+
+    /**
+     * Adds deltas to one (clinic, date) row in place.
+     *
+     * @return rows updated — 0 means the row does not exist yet
+     */
+    @Modifying
+    @Query("""
+            UPDATE DailyClinicStats s SET
+                s.pendingCount   = s.pendingCount   + :pending,
+                s.confirmedCount = s.confirmedCount + :confirmed,
+                s.checkedInCount = s.checkedInCount + :checkedIn,
+                s.completedCount = s.completedCount + :completed,
+                s.cancelledCount = s.cancelledCount + :cancelled,
+                s.noShowCount    = s.noShowCount    + :noShow,
+                s.walkInCount    = s.walkInCount    + :walkIns,
+                s.checkInCount   = s.checkInCount   + :checkIns,
+                s.waitedCount    = s.waitedCount    + :waited,
+                s.waitSeconds    = s.waitSeconds    + :waitSeconds
+            WHERE s.clinic.id = :clinicId AND s.statDate = :date
+            """)
+    int increment(@Param("clinicId") Long clinicId, @Param("date") LocalDate date,
+                  @Param("pending") long pending, @Param("confirmed") long confirmed,
+                  @Param("checkedIn") long checkedIn, @Param("completed") long completed,
+                  @Param("cancelled") long cancelled, @Param("noShow") long noShow,
+                  @Param("walkIns") long walkIns, @Param("checkIns") long checkIns,
+                  @Param("waited") long waited, @Param("waitSeconds") long waitSeconds);
+
+    /** Cross-clinic totals for a date range — admin reports */
+    @Query("""
+            SELECT new com.clinic.repository.projection.StatsTotals(
+                       SUM(s.pendingCount), SUM(s.confirmedCount), SUM(s.checkedInCount),
+                       SUM(s.completedCount), SUM(s.cancelledCount), SUM(s.noShowCount),
+                       SUM(s.walkInCount), SUM(s.checkInCount),
+                       SUM(s.waitedCount), SUM(s.waitSeconds))
+            FROM DailyClinicStats s
+            WHERE s.statDate BETWEEN :from AND :to
+            """)
+    StatsTotals sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM DailyClinicStats s WHERE s.statDate = :date")
+    int deleteByStatDate(@Param("date") LocalDate date);
+}
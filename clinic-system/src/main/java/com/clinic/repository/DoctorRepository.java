@@ -8,16 +8,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * DoctorRepository — Persistence Layer for Doctor entity.
  *
  * Multi-clinic: all list queries scoped by Clinic.
  * SUPER_ADMIN uses platform-level queries (no clinic filter).
+ * findByUserId is a natural-id lookup (DoctorRepositoryCustomImpl).
  */
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, DoctorRepositoryCustom {
 
     // ─── Clinic-scoped (ADMIN / PATIENT use) ─────────────────────────────────
 
@@ -25,9 +25,12 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
     List<Doctor> findByClinic(Clinic clinic);
 
-    List<Doctor> findByClinicAndSpecialization(Clinic clinic, String specialization);
+    /** Queue board roster: available doctors with their users in one statement. */
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH u.clinic " +
+           "WHERE d.clinic.id = :clinicId AND d.available = true ORDER BY u.fullName, d.id")
+    List<Doctor> findAvailableWithUserByClinicId(@Param("clinicId") Long clinicId);
 
-    Optional<Doctor> findByUserId(Long userId);
+    List<Doctor> findByClinicAndSpecialization(Clinic clinic, String specialization);
 
     @Query("SELECT DISTINCT d.specialization FROM Doctor d WHERE d.clinic = :clinic ORDER BY d.specialization")
     List<String> findSpecializationsByClinic(@Param("clinic") Clinic clinic);
@@ -0,0 +1,14 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.Doctor;
+
+import java.util.Optional;
+
+/**
+ * DoctorRepositoryCustom — lookups Spring Data cannot derive.
+ */
+public interface DoctorRepositoryCustom {
+
+    /** Doctor profile of a login account, resolved by natural id (second-level cached). */
+    Optional<Doctor> findByUserId(Long userId);
+}
@@ -0,0 +1,30 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.Doctor;
+import com.clinic.model.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * DoctorRepositoryCustomImpl — natural-id lookup for Doctor.user.
+ *
+ * A derived query would always hit the database; Session.bySimpleNaturalId
+ * goes through the doctors_by_user and doctors cache regions first.
+ */
+class DoctorRepositoryCustomImpl implements DoctorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Doctor> findByUserId(Long userId) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.bySimpleNaturalId(Doctor.class)
+                .loadOptional(session.getReference(User.class, userId));
+    }
+}
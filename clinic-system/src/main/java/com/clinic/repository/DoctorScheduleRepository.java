@@ -2,7 +2,10 @@ package com.clinic.repository;
 
 import com.clinic.model.entity.Doctor;
 import com.clinic.model.entity.DoctorSchedule;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
@@ -11,8 +14,11 @@ import java.util.List;
 @Repository
 public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule, Long> {
 
+    // Query cache: results hold ids, the rows come from the doctor_schedules region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<DoctorSchedule> findByDoctorAndActiveTrue(Doctor doctor);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<DoctorSchedule> findByDoctorAndDayOfWeekAndActiveTrue(Doctor doctor, DayOfWeek day);
 
     void deleteByDoctor(Doctor doctor);
@@ -0,0 +1,31 @@
+package com.clinic.repository;
+
+import com.clinic.model.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /** Oldest messages ready to send — one dispatcher batch */
+    @Query("SELECT m FROM OutboxMessage m WHERE m.availableAt <= :now ORDER BY m.id")
+    List<OutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable page);
+
+    /** Records a failed attempt and pushes the message back until retryAt */
+    @Modifying
+    @Query("""
+            UPDATE OutboxMessage m
+            SET m.attempts = m.attempts + 1, m.availableAt = :retryAt,
+                m.lastError = :error, m.updatedAt = :now
+            WHERE m.id = :id
+            """)
+    int recordFailure(@Param("id") Long id, @Param("error") String error,
+                      @Param("retryAt") LocalDateTime retryAt, @Param("now") LocalDateTime now);
+}
@@ -4,6 +4,9 @@ import com.clinic.model.entity.Doctor;
 import com.clinic.model.entity.Patient;
 import com.clinic.model.entity.QueueEntry;
 import com.clinic.model.enums.QueueStatus;
+import com.clinic.repository.projection.ConsultSample;
+import com.clinic.repository.projection.DailyQueueStats;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,8 +19,21 @@ import java.util.Optional;
 @Repository
 public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
 
+    /** Live queue view — patient/doctor users fetched up front for QueueMapper */
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
     List<QueueEntry> findByDoctorAndQueueDateOrderByQueueNumberAsc(Doctor doctor, LocalDate date);
 
+    /** QueueEngine per-doctor load — same fetch plan, keyed by doctor id */
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
+    List<QueueEntry> findByDoctorIdAndQueueDateOrderByQueueNumberAsc(Long doctorId, LocalDate date);
+
+    /** QueueEngine startup rebuild — every queue entry of the day */
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
+    List<QueueEntry> findWithParticipantsByQueueDate(LocalDate date);
+
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
+    Optional<QueueEntry> findWithParticipantsById(Long id);
+
     List<QueueEntry> findByDoctorAndQueueDateAndStatusOrderByQueueNumberAsc(
             Doctor doctor, LocalDate date, QueueStatus status);
 //    List<QueueEntry> findByDate(LocalDate date);
@@ -28,10 +44,11 @@ public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
 
     List<QueueEntry> findByQueueDateBetween(LocalDate start, LocalDate end);
 
+    @EntityGraph(attributePaths = {"patient.user", "doctor.user"})
     Optional<QueueEntry> findByPatientAndQueueDateAndStatusIn(
             Patient patient, LocalDate date, List<QueueStatus> statuses);
 
-    /** Next queue number = current max + 1 for the doctor's queue today */
+    /** Next queue number = current max + 1 — seeds QueueNumberAllocator once per doctor/day */
     @Query("""
             SELECT COALESCE(MAX(q.queueNumber), 0) + 1
             FROM QueueEntry q
@@ -39,6 +56,18 @@ public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
             """)
     int nextQueueNumber(@Param("doctor") Doctor doctor, @Param("date") LocalDate date);
 
+    /** Entries sharing their (doctor, date, queue number) with another — left by the old MAX()+1 race */
+    @Query("""
+            SELECT COUNT(q) FROM QueueEntry q
+            WHERE EXISTS (
+                SELECT 1 FROM QueueEntry o
+                WHERE o.doctor = q.doctor
+                  AND o.queueDate = q.queueDate
+                  AND o.queueNumber = q.queueNumber
+                  AND o.id <> q.id)
+            """)
+    long countDuplicateQueueNumbers();
+
     /** Count of patients still WAITING ahead of a given queue number */
     @Query("""
             SELECT COUNT(q) FROM QueueEntry q
@@ -53,6 +82,36 @@ public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
             @Param("queueNumber") int queueNumber
     );
 
+    /** Per-(clinic, date) queue totals and summed check-in → consult waits — daily_clinic_stats rebuild */
+    @Query("""
+            SELECT new com.clinic.repository.projection.DailyQueueStats(
+                       q.clinic.id,
+                       q.queueDate,
+                       COUNT(q),
+                       SUM(CASE WHEN q.walkIn = true THEN 1L ELSE 0L END),
+                       COUNT(q.consultStartTime),
+                       SUM((q.consultStartTime - q.checkInTime) by second))
+            FROM QueueEntry q
+            WHERE q.queueDate BETWEEN :from AND :to
+            GROUP BY q.clinic.id, q.queueDate
+            """)
+    List<DailyQueueStats> summarizeByClinicAndDate(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /** Finished consultations since a date, oldest first — ConsultDurationEstimator warm start */
+    @Query("""
+            SELECT new com.clinic.repository.projection.ConsultSample(
+                       q.doctor.id, q.consultStartTime, q.consultEndTime)
+            FROM QueueEntry q
+            WHERE q.queueDate >= :since
+              AND q.status = 'DONE'
+              AND q.consultStartTime IS NOT NULL
+              AND q.consultEndTime IS NOT NULL
+            ORDER BY q.consultEndTime
+            """)
+    List<ConsultSample> findConsultsSince(@Param("since") LocalDate since);
+
     /** Daily count for admin reporting */
     long countByQueueDate(LocalDate date);
 
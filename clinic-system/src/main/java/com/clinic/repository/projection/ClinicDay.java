@@ -0,0 +1,10 @@
+package com.clinic.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * ClinicDay — one (clinic, date) pair, the unit of work for set-based
+ * sweeps such as AppointmentRepository.findOverdueConfirmedDays.
+ */
+public record ClinicDay(Long clinicId, LocalDate date) {
+}
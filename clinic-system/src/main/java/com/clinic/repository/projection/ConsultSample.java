@@ -0,0 +1,10 @@
+package com.clinic.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * ConsultSample — start and end of one finished consultation, the input
+ * ConsultDurationEstimator is warm-started from.
+ */
+public record ConsultSample(Long doctorId, LocalDateTime consultStartTime, LocalDateTime consultEndTime) {
+}
@@ -0,0 +1,16 @@
+package com.clinic.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * DailyQueueStats — a clinic's queue totals for one date, one row per
+ * (clinic, date) from QueueEntryRepository.summarizeByClinicAndDate.
+ *
+ *  entries       — all queue entries
+ *  walkIns       — entries without an appointment (QR-004)
+ *  waitedEntries — entries with both check-in and consult-start times
+ *  waitSeconds   — sum of check-in → consult-start over waitedEntries
+ */
+public record DailyQueueStats(Long clinicId, LocalDate date, Long entries, Long walkIns,
+                              Long waitedEntries, Long waitSeconds) {
+}
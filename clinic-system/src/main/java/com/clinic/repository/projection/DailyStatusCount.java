@@ -0,0 +1,13 @@
+package com.clinic.repository.projection;
+
+import com.clinic.model.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * DailyStatusCount — number of a clinic's appointments in one status on one
+ * date, one row per (clinic, date, status) from
+ * AppointmentRepository.countByClinicDateAndStatus.
+ */
+public record DailyStatusCount(Long clinicId, LocalDate date, AppointmentStatus status, Long count) {
+}
@@ -0,0 +1,19 @@
+package com.clinic.repository.projection;
+
+/**
+ * DoctorDayLoad — booking admission figures for one doctor on one date,
+ * fetched in a single query by AppointmentRepository.findDayLoad.
+ *
+ *  activeCount  — appointments currently holding a slot that day (BR-003 cap)
+ *  slotTaken    — how many of those sit on the requested time (BR-001 conflict)
+ */
+public record DoctorDayLoad(Long activeCount, Long slotTaken) {
+
+    public boolean isSlotTaken() {
+        return slotTaken != null && slotTaken > 0;
+    }
+
+    public long getActiveCount() {
+        return activeCount == null ? 0 : activeCount;
+    }
+}
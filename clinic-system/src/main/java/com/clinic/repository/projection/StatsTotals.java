@@ -0,0 +1,10 @@
+package com.clinic.repository.projection;
+
+/**
+ * StatsTotals — daily_clinic_stats counters summed over a date range,
+ * from DailyClinicStatsRepository.sumBetween. Fields are null when no rows match.
+ */
+public record StatsTotals(Long pending, Long confirmed, Long checkedIn,
+                          Long completed, Long cancelled, Long noShow,
+                          Long walkIns, Long checkIns, Long waited, Long waitSeconds) {
+}
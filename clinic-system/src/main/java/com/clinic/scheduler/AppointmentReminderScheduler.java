@@ -3,17 +3,25 @@ package com.clinic.scheduler;
 import com.clinic.model.entity.Appointment;
 import com.clinic.model.enums.AppointmentStatus;
 import com.clinic.repository.AppointmentRepository;
+import com.clinic.repository.projection.ClinicDay;
 import com.clinic.service.NotificationService;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.QueueNumberAllocator;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * AppointmentReminderScheduler — sends 24-hour reminders automatically.
@@ -25,9 +33,15 @@ import java.util.List;
  * regardless of exactly when the scheduler runs within the hour.
  *
  * reminderSent flag prevents duplicate sends on scheduler re-runs.
+ * Candidates are processed in keyset-paged chunks, each flagged with one
+ * bulk UPDATE in its own transaction.
  *
  * Also handles NO_SHOW detection: CONFIRMED appointments from past days
- * that were never checked in are marked as NO_SHOW.
+ * that were never checked in are marked as NO_SHOW, set-based per clinic
+ * and date.
+ *
+ * Both runs are timed as clinic.scheduler.run; reminders and no-shows are
+ * counted per clinic (clinic.reminder.sent, clinic.appointment.no.show).
  */
 @Component
 @RequiredArgsConstructor
@@ -36,54 +50,136 @@ public class AppointmentReminderScheduler {
 
     private final AppointmentRepository appointmentRepository;
     private final NotificationService notificationService;
+    private final SlotAvailabilityIndex slotIndex;
+    private final QueueNumberAllocator queueNumbers;
+    private final DailyStatsRecorder dailyStats;
+    private final ClinicMetrics metrics;
+
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${clinic.reminder.hours-before:24}")
     private int hoursBeforeReminder;
 
+    @Value("${clinic.reminder.batch-size:200}")
+    private int batchSize;
+
+    private TransactionTemplate readOnlyTx;
+
+    @PostConstruct
+    void initReadOnlyTx() {
+        readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTx.setReadOnly(true);
+    }
+
     /**
      * Runs every hour at minute 0.
      * cron = "0 0 * * * *" → second=0, minute=0, every hour
+     *
+     * Works in chunks of clinic.reminder.batch-size so a large run keeps
+     * memory and transactions short:
+     *  1. read the next keyset page of candidates (short read-only transaction)
+     *  2. send the batch with no transaction or connection held
+     *  3. flag the confirmed sends with one bulk UPDATE, committed per chunk
+     * Failed sends keep reminderSent = false and are retried next run while
+     * still inside the window.
      */
     @Scheduled(cron = "0 0 * * * *")
-    @Transactional
     public void sendReminders() {
+        metrics.schedulerRun("appointment-reminders", this::sendDueReminders);
+    }
+
+    private void sendDueReminders() {
         log.info("ReminderScheduler: checking for upcoming appointments...");
 
         LocalDateTime windowStart = LocalDateTime.now().plusHours(hoursBeforeReminder - 1);
         LocalDateTime windowEnd   = LocalDateTime.now().plusHours(hoursBeforeReminder + 1);
 
-        List<Appointment> candidates = appointmentRepository
-                .findReminderCandidates(windowStart, windowEnd);
+        LocalDateTime afterDueAt = windowStart;
+        Long afterId = 0L;
+        int candidates = 0;
+        int sent = 0;
 
-        log.info("ReminderScheduler: found {} candidates", candidates.size());
+        while (true) {
+            LocalDateTime cursorDueAt = afterDueAt;
+            Long cursorId = afterId;
+            List<Appointment> chunk = readOnlyTx.execute(tx -> appointmentRepository.findReminderCandidates(
+                    windowEnd, cursorDueAt, cursorId, PageRequest.of(0, batchSize)));
+            if (chunk == null || chunk.isEmpty()) break;
 
-        for (Appointment appointment : candidates) {
-            try {
-                notificationService.sendAppointmentReminder(appointment);
-                appointment.setReminderSent(true);
-                appointmentRepository.save(appointment);
-            } catch (Exception e) {
-                log.error("Failed to send reminder for appointment {}: {}",
-                        appointment.getId(), e.getMessage());
-                // Continue with other reminders — don't let one failure block the rest
+            Set<Long> done = notificationService.sendAppointmentReminders(chunk);
+            if (!done.isEmpty()) {
+                transactionTemplate.executeWithoutResult(tx ->
+                        appointmentRepository.markRemindersSent(done, LocalDateTime.now()));
             }
+
+            chunk.stream().filter(a -> done.contains(a.getId()))
+                    .forEach(a -> metrics.reminderSent(a.getClinic()));
+            candidates += chunk.size();
+            sent += done.size();
+            Appointment last = chunk.get(chunk.size() - 1);
+            afterDueAt = last.getReminderDueAt();
+            afterId = last.getId();
+            if (chunk.size() < batchSize) break;
         }
+
+        log.info("ReminderScheduler: {} candidates, {} reminders done, {} to retry",
+                candidates, sent, candidates - sent);
     }
 
     /**
      * Runs once per day at 01:00 AM.
-     * Marks any appointments from yesterday that are still CONFIRMED as NO_SHOW.
+     * Marks appointments from past days that are still CONFIRMED as NO_SHOW —
+     * one bulk UPDATE per (clinic, date), each in its own transaction, with
+     * daily_clinic_stats adjusted in the same transaction.
+     * Also drops past days from the slot index and queue-number counters —
+     * those days can no longer be booked or checked into, so no per-slot
+     * release is needed for the appointments marked here.
      */
     @Scheduled(cron = "0 0 1 * * *")
-    @Transactional
     public void markNoShows() {
+        metrics.schedulerRun("no-shows", this::markOverdueNoShows);
+    }
+
+    private void markOverdueNoShows() {
         log.info("ReminderScheduler: marking no-shows from previous days...");
 
-        List<Appointment> overdue = appointmentRepository.findOverdueConfirmed(LocalDate.now());
-        overdue.forEach(a -> {
-            a.setStatus(AppointmentStatus.NO_SHOW);
-            appointmentRepository.save(a);
-            log.info("Appointment {} marked as NO_SHOW", a.getId());
-        });
+        LocalDate today = LocalDate.now();
+        List<ClinicDay> days = readOnlyTx.execute(tx -> appointmentRepository.findOverdueConfirmedDays(today));
+        int total = 0;
+        for (ClinicDay day : days) {
+            try {
+                List<Long> ids = transactionTemplate.execute(tx -> markNoShows(day));
+                total += ids.size();
+                metrics.noShowsMarked(day.clinicId(), ids.size());
+                log.info("Clinic {} on {}: {} appointments marked as NO_SHOW",
+                        day.clinicId(), day.date(), ids.size());
+                log.debug("Clinic {} on {}: NO_SHOW ids {}", day.clinicId(), day.date(), ids);
+            } catch (RuntimeException e) {
+                log.error("No-show marking failed for clinic {} on {}, will retry next run: {}",
+                        day.clinicId(), day.date(), e.getMessage());
+            }
+        }
+        slotIndex.evictBefore(today);
+        queueNumbers.evictBefore(today);
+        log.info("ReminderScheduler: {} no-shows across {} clinic days", total, days.size());
+    }
+
+    /**
+     * Caller holds the transaction.
+     *
+     * @return ids of the appointments this call moved to NO_SHOW
+     */
+    private List<Long> markNoShows(ClinicDay day) {
+        List<Long> ids = appointmentRepository.findConfirmedIds(day.clinicId(), day.date());
+        if (ids.isEmpty()) return ids;
+
+        int updated = appointmentRepository.markNoShow(ids, LocalDateTime.now());
+        if (updated < ids.size()) {
+            // some were cancelled or completed in between — report only the rows we moved
+            ids = appointmentRepository.findIdsInStatus(ids, AppointmentStatus.NO_SHOW);
+        }
+        dailyStats.appointmentsStatusChanged(day.clinicId(), day.date(),
+                AppointmentStatus.CONFIRMED, AppointmentStatus.NO_SHOW, updated);
+        return ids;
     }
 }
@@ -0,0 +1,28 @@
+package com.clinic.scheduler;
+
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * NotificationOutboxScheduler — drains the notification outbox.
+ *
+ * Appointment emails are queued in notification_outbox by the transaction
+ * that books, reschedules or cancels; this job sends them in batches.
+ * The interval bounds how long a patient waits for the email.
+ * Each run is timed as clinic.scheduler.run (job=notification-outbox).
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxScheduler {
+
+    private final NotificationOutbox outbox;
+    private final ClinicMetrics metrics;
+
+    @Scheduled(fixedDelayString = "${clinic.notification.dispatch-interval-ms:2000}")
+    public void dispatchNotifications() {
+        metrics.schedulerRun("notification-outbox", outbox::drain);
+    }
+}
@@ -0,0 +1,28 @@
+package com.clinic.scheduler;
+
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.QueueEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * QueueWriteBehindScheduler — drains QueueEngine's pending transitions.
+ *
+ * Queue transitions (call next, skip, complete) are applied in memory first;
+ * this job persists them to queue_entries in one batch per run.
+ * The interval bounds how far the database may lag the live queue.
+ * Each run is timed as clinic.scheduler.run (job=queue-write-behind).
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueWriteBehindScheduler {
+
+    private final QueueEngine queueEngine;
+    private final ClinicMetrics metrics;
+
+    @Scheduled(fixedDelayString = "${clinic.queue.flush-interval-ms:1000}")
+    public void flushQueueTransitions() {
+        metrics.schedulerRun("queue-write-behind", queueEngine::flush);
+    }
+}
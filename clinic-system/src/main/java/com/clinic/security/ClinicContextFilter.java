@@ -1,9 +1,8 @@
 package com.clinic.security;
 
-import com.clinic.model.entity.User;
+import com.clinic.model.entity.Clinic;
 import com.clinic.model.enums.ClinicStatus;
 import com.clinic.model.enums.Role;
-import com.clinic.repository.UserRepository;
 import com.clinic.util.ClinicContextHolder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,6 +21,8 @@ import java.io.IOException;
  * ClinicContextFilter — per-request filter that:
  *
  *  1. Resolves the logged-in user's Clinic and stores it in ClinicContextHolder.
+ *     The clinic id comes from ClinicUserPrincipal and the Clinic from
+ *     ClinicStatusCache, so a warm request runs no identity queries.
  *  2. Blocks requests from users whose clinic is SUSPENDED or INACTIVE
  *     (returns 403 / redirects to a "clinic suspended" error page).
  *  3. Clears ClinicContextHolder after each request for thread safety.
@@ -39,7 +40,7 @@ import java.io.IOException;
 @Slf4j
 public class ClinicContextFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final ClinicStatusCache clinicCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -49,35 +50,29 @@ public class ClinicContextFilter extends OncePerRequestFilter {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
+            // Identity comes from the principal captured at login — no user lookup here
             if (auth != null && auth.isAuthenticated()
-                    && !"anonymousUser".equals(auth.getPrincipal())) {
+                    && auth.getPrincipal() instanceof ClinicUserPrincipal user) {
 
-                String email = auth.getName();
-                userRepository.findByEmail(email).ifPresent(user -> {
+                if (user.getRole() == Role.SUPER_ADMIN) {
+                    ClinicContextHolder.setSuperAdmin();
 
-                    if (user.getRole() == Role.SUPER_ADMIN) {
-                        ClinicContextHolder.setSuperAdmin();
+                } else if (user.getClinicId() != null) {
+                    Clinic clinic = clinicCache.get(user.getClinicId()).orElse(null);
+                    ClinicStatus status = clinic != null ? clinic.getStatus() : null;
 
-                    } else if (user.getClinic() != null) {
-                        ClinicStatus status = user.getClinic().getStatus();
-
-                        // Block all access for SUSPENDED or INACTIVE clinics
-                        if (status == ClinicStatus.SUSPENDED || status == ClinicStatus.INACTIVE) {
-                            log.warn("Blocked request from user {} — clinic {} is {}",
-                                    email, user.getClinic().getName(), status);
-                            try {
-                                // Redirect to clinic-suspended error page
-                                SecurityContextHolder.clearContext();
-                                response.sendRedirect("/error/clinic-suspended");
-                            } catch (IOException ex) {
-                                log.error("Redirect failed", ex);
-                            }
-                            return;
-                        }
-
-                        ClinicContextHolder.setClinic(user.getClinic());
+                    // Block all access for SUSPENDED or INACTIVE clinics
+                    if (status == null || status == ClinicStatus.SUSPENDED || status == ClinicStatus.INACTIVE) {
+                        log.warn("Blocked request from user {} — clinic {} is {}",
+                                user.getUsername(), user.getClinicId(), status);
+                        // Redirect to clinic-suspended error page
+                        SecurityContextHolder.clearContext();
+                        response.sendRedirect("/error/clinic-suspended");
+                        return;
                     }
-                });
+
+                    ClinicContextHolder.setClinic(clinic);
+                }
             }
 
             filterChain.doFilter(request, response);
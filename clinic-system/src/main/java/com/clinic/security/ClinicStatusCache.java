@@ -0,0 +1,83 @@
+package com.clinic.security;
+
+import com.clinic.model.entity.Clinic;
+import com.clinic.repository.ClinicRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClinicStatusCache — clinics by id for ClinicContextFilter, so an
+ * authenticated request does not load its clinic from the DB.
+ *
+ * Entries are detached Clinic snapshots: read their status and identity,
+ * use them as association targets, but do not modify them.
+ *
+ * ClinicServiceImpl evicts a clinic when it changes status or configuration;
+ * eviction runs after commit so a concurrent request cannot re-cache the old
+ * row. Entries also expire after clinic.security.clinic-cache-ttl-seconds,
+ * which bounds staleness when several application nodes share the DB.
+ */
+@Component
+public class ClinicStatusCache {
+
+    private final ClinicRepository clinicRepository;
+    private final long ttlNanos;
+
+    private final Map<Long, Entry> clinics = new ConcurrentHashMap<>();
+
+    /** Bumped on every eviction; a load that raced one is returned but not cached. */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ClinicStatusCache(ClinicRepository clinicRepository,
+                             @Value("${clinic.security.clinic-cache-ttl-seconds:60}") long ttlSeconds) {
+        this.clinicRepository = clinicRepository;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public Optional<Clinic> get(Long clinicId) {
+        long now = System.nanoTime();
+        Entry entry = clinics.get(clinicId);
+        if (entry == null || now - entry.loadedAt() > ttlNanos) {
+            long generation = evictions.get();
+            Optional<Clinic> loaded = clinicRepository.findById(clinicId);
+            if (loaded.isEmpty()) {
+                clinics.remove(clinicId);
+                return Optional.empty();
+            }
+            entry = new Entry(loaded.get(), now);
+            if (evictions.get() == generation) {
+                clinics.put(clinicId, entry);
+            }
+        }
+        return Optional.of(entry.clinic());
+    }
+
+    /** Drops the clinic once the current transaction (if any) commits. */
+    public void evict(Long clinicId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(clinicId);
+                }
+            });
+        } else {
+            remove(clinicId);
+        }
+    }
+
+    private void remove(Long clinicId) {
+        evictions.incrementAndGet();
+        clinics.remove(clinicId);
+    }
+
+    private record Entry(Clinic clinic, long loadedAt) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.clinic.security;
+
+import com.clinic.model.enums.Role;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * ClinicUserPrincipal — the authenticated principal stored in the SecurityContext.
+ *
+ * Extends Spring's User with the identity fields every request needs, captured
+ * once at login by CustomUserDetailsService:
+ *   userId    — our User primary key (SecurityUtils.getCurrentUserId)
+ *   role      — drives SUPER_ADMIN vs clinic-scoped handling
+ *   clinicId  — tenant resolved by ClinicContextFilter; null for SUPER_ADMIN
+ *
+ * Serializable along with the HTTP session, like Spring's User.
+ */
+@Getter
+public class ClinicUserPrincipal extends User {
+
+    private final Long userId;
+    private final Role role;
+    private final Long clinicId;
+
+    public ClinicUserPrincipal(com.clinic.model.entity.User user) {
+        super(user.getEmail(), user.getPassword(), user.isEnabled(), true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        this.userId = user.getId();
+        this.role = user.getRole();
+        this.clinicId = user.getClinic() != null ? user.getClinic().getId() : null;
+    }
+}
@@ -3,19 +3,18 @@ package com.clinic.security;
 import com.clinic.model.entity.User;
 import com.clinic.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 /**
  * CustomUserDetailsService — bridges our User entity with Spring Security.
  *
  * Spring calls loadUserByUsername(email) on every login attempt.
- * We map our Role enum to Spring's "ROLE_XXX" GrantedAuthority convention.
+ * We map our Role enum to Spring's "ROLE_XXX" GrantedAuthority convention,
+ * and return a ClinicUserPrincipal so later requests know the user's id,
+ * role and clinic without querying for them.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,14 +27,6 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email.toLowerCase())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())))
-                .accountExpired(false)
-                .accountLocked(false)
-                .credentialsExpired(false)
-                .disabled(!user.isEnabled())
-                .build();
+        return new ClinicUserPrincipal(user);
     }
 }
@@ -2,11 +2,13 @@ package com.clinic.service;
 
 import com.clinic.dto.request.AppointmentBookRequest;
 import com.clinic.dto.request.AppointmentRescheduleRequest;
+import com.clinic.dto.response.AppointmentPage;
 import com.clinic.dto.response.AppointmentResponse;
 import com.clinic.dto.response.AvailableSlotResponse;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * AppointmentService — Business Layer interface for appointment operations.
@@ -45,8 +47,13 @@ public interface AppointmentService {
     /** Returns all time slots available for a given doctor on a given date. */
     List<AvailableSlotResponse> getAvailableSlots(Long doctorId, LocalDate date);
 
-    /** Patient's full appointment history (newest first). */
-    List<AppointmentResponse> getPatientAppointments(Long patientUserId);
+    /**
+     * One page of the patient's appointment history (newest first).
+     *
+     * @param cursor nextCursor of the previous page, or null for the newest page
+     * @throws IllegalArgumentException if cursor is not a valid token
+     */
+    AppointmentPage getPatientAppointments(Long patientUserId, String cursor);
 
     /** Upcoming appointments only (today and future). */
     List<AppointmentResponse> getUpcomingAppointments(Long patientUserId);
@@ -68,6 +75,18 @@ public interface AppointmentService {
             LocalDate start,
             LocalDate end);
 
+    /**
+     * Streams a clinic's appointments in [start, end] to sink, oldest first,
+     * row by row from a database cursor — for exports of any size.
+     *
+     * @return number of rows written
+     */
+    long exportAppointmentsByDateRange(
+            Long clinicId,
+            LocalDate start,
+            LocalDate end,
+            Consumer<AppointmentResponse> sink);
+
 
     /** Admin / Doctor: mark appointment as COMPLETED after consultation. */
     AppointmentResponse completeAppointment(Long appointmentId, Long doctorUserId);
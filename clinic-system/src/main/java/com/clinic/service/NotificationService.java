@@ -3,12 +3,18 @@ package com.clinic.service;
 import com.clinic.model.entity.Appointment;
 import com.clinic.model.entity.User;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * NotificationService — Business Layer interface for all notifications.
  *
  * Implementations handle Email (and optionally SMS).
  * Every sent notification is logged in the Notification table
  * for ISO/IEC 27001 audit trail and admin delivery-rate reporting.
+ *
+ * Confirmation, reschedule and cancellation messages join the caller's
+ * transaction (transactional outbox) and are only sent once it commits.
  */
 public interface NotificationService {
 
@@ -20,5 +26,14 @@ public interface NotificationService {
 
     void sendAppointmentReminder(Appointment appointment);
 
+    /**
+     * Sends reminders for a batch synchronously — used by the reminder scheduler.
+     * Patient, doctor and their users must be loaded.
+     *
+     * @return ids of appointments whose reminder is done (sent, or not wanted
+     *         by the patient); failed sends are left out so they are retried
+     */
+    Set<Long> sendAppointmentReminders(List<Appointment> appointments);
+
     void sendQueueUpdateNotification(User user, int queuePosition, int estimatedWaitMinutes);
 }
@@ -11,7 +11,8 @@ import java.util.List;
  * Queue rules:
  *  QR-001  A patient can be in only one active queue per day per doctor.
  *  QR-002  Queue number is assigned sequentially; never reused.
- *  QR-003  Estimated wait = patientsAhead × avgMinutesPerPatient.
+ *  QR-003  Estimated wait = patientsAhead × the doctor's expected consult length
+ *          (ConsultDurationEstimator, learned from finished consultations).
  *  QR-004  Walk-in patients join the queue without a prior appointment.
  */
 public interface QueueService {
@@ -1,155 +1,80 @@
 package com.clinic.service.impl;
 
 import com.clinic.dto.response.DailyReportResponse;
-import com.clinic.model.entity.Appointment;
-import com.clinic.model.entity.QueueEntry;
-import com.clinic.model.enums.AppointmentStatus;
-import com.clinic.repository.AppointmentRepository;
-import com.clinic.repository.QueueEntryRepository;
+import com.clinic.repository.DailyClinicStatsRepository;
+import com.clinic.repository.projection.StatsTotals;
 import com.clinic.service.AdminReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDate;
-import java.util.List;
 
+/**
+ * AdminReportServiceImpl — report figures read from the daily_clinic_stats
+ * rollup (see DailyStatsRecorder), one aggregate query per report whatever
+ * the number of appointments and queue entries behind it.
+ *
+ * Average wait is total check-in → consult-start time divided by the number
+ * of patients who waited, i.e. weighted by patient count across days.
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class AdminReportServiceImpl implements AdminReportService {
 
-    private final AppointmentRepository appointmentRepository;
-    private final QueueEntryRepository queueEntryRepository;
+    private final DailyClinicStatsRepository statsRepository;
 
     @Override
     public DailyReportResponse getDailyReport(LocalDate date) {
-
-        List<Appointment> appointments =
-                appointmentRepository.findByAppointmentDate(date);
-
-        List<QueueEntry> queueEntries = queueEntryRepository.findByQueueDate(date);
-
-        return buildReport(date, appointments, queueEntries);
-    }
-
-
-    private DailyReportResponse buildReport(LocalDate date,
-                                            List<Appointment> appointments,
-                                            List<QueueEntry> queueEntries) {
-
-        long totalAppointments = appointments.size();
-
-        long confirmedAppointments = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CONFIRMED)
-                .count();
-
-        long cancelledAppointments = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.CANCELLED)
-                .count();
-
-        long completedAppointments = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.COMPLETED)
-                .count();
-
-        long noShowAppointments = appointments.stream()
-                .filter(a -> a.getStatus() == AppointmentStatus.NO_SHOW)
-                .count();
-
-        long totalQueueEntries = queueEntries.size();
-
-        long walkInCount = queueEntries.stream()
-                .filter(QueueEntry::isWalkIn)
-                .count();
-
-        long appointmentCheckIns = totalQueueEntries - walkInCount;
-
-        // ─── Average Wait Time (checkIn → consultStart) ─────────────
-        double avgWaitTime = queueEntries.stream()
-                .filter(q -> q.getCheckInTime() != null && q.getConsultStartTime() != null)
-                .mapToLong(q ->
-                        java.time.Duration
-                                .between(q.getCheckInTime(), q.getConsultStartTime())
-                                .toMinutes()
-                )
-                .average()
-                .orElse(0);
-
+        DailyReportResponse report = buildReport(date, date);
         // If you are not tracking notifications yet
-        double notificationRate = 100.0; // or set to 0 if preferred
-
-        return DailyReportResponse.builder()
-                .date(date)
-                .totalAppointments(totalAppointments)
-                .confirmedAppointments(confirmedAppointments)
-                .cancelledAppointments(cancelledAppointments)
-                .completedAppointments(completedAppointments)
-                .noShowAppointments(noShowAppointments)
-                .totalQueueEntries(totalQueueEntries)
-                .walkInCount(walkInCount)
-                .appointmentCheckIns(appointmentCheckIns)
-                .avgWaitTimeMinutes(avgWaitTime)
-                .notificationDeliveryRatePercent(notificationRate)
-                .appointmentConflicts(0) // always 0 by business rule
-                .build();
+        report.setNotificationDeliveryRatePercent(100.0);
+        return report;
     }
 
-
-
     @Override
     public DailyReportResponse getDateRangeReport(LocalDate from, LocalDate to) {
+        return buildReport(from, to); // date = representative start date
+    }
 
-        LocalDate current = from;
-
-        long totalAppointments = 0;
-        long confirmed = 0;
-        long cancelled = 0;
-        long completed = 0;
-        long noShow = 0;
-        long totalQueueEntries = 0;
-        long walkIns = 0;
-        long appointmentCheckIns = 0;
-        double totalWaitTime = 0;
-        long waitCount = 0;
-
-        while (!current.isAfter(to)) {
-
-            DailyReportResponse daily = getDailyReport(current);
-
-            totalAppointments += daily.getTotalAppointments();
-            confirmed += daily.getConfirmedAppointments();
-            cancelled += daily.getCancelledAppointments();
-            completed += daily.getCompletedAppointments();
-            noShow += daily.getNoShowAppointments();
-            totalQueueEntries += daily.getTotalQueueEntries();
-            walkIns += daily.getWalkInCount();
-            appointmentCheckIns += daily.getAppointmentCheckIns();
+    private DailyReportResponse buildReport(LocalDate from, LocalDate to) {
+        StatsTotals totals = statsRepository.sumBetween(from, to);
 
-            if (daily.getAvgWaitTimeMinutes() > 0) {
-                totalWaitTime += daily.getAvgWaitTimeMinutes();
-                waitCount++;
-            }
+        long confirmed = nullToZero(totals.confirmed());
+        long cancelled = nullToZero(totals.cancelled());
+        long completed = nullToZero(totals.completed());
+        long noShow = nullToZero(totals.noShow());
+        long totalAppointments = nullToZero(totals.pending()) + confirmed
+                + nullToZero(totals.checkedIn()) + completed + cancelled + noShow;
 
-            current = current.plusDays(1);
-        }
+        long walkInCount = nullToZero(totals.walkIns());
+        long appointmentCheckIns = nullToZero(totals.checkIns());
 
-        double avgWait = waitCount == 0 ? 0 : totalWaitTime / waitCount;
+        // ─── Average Wait Time (checkIn → consultStart) ─────────────
+        long waited = nullToZero(totals.waited());
+        double avgWaitTime = waited == 0 ? 0 : nullToZero(totals.waitSeconds()) / 60.0 / waited;
 
         return DailyReportResponse.builder()
-                .date(from) // representative start date
+                .date(from)
                 .totalAppointments(totalAppointments)
                 .confirmedAppointments(confirmed)
                 .cancelledAppointments(cancelled)
                 .completedAppointments(completed)
                 .noShowAppointments(noShow)
-                .totalQueueEntries(totalQueueEntries)
-                .walkInCount(walkIns)
+                .totalQueueEntries(walkInCount + appointmentCheckIns)
+                .walkInCount(walkInCount)
                 .appointmentCheckIns(appointmentCheckIns)
-                .avgWaitTimeMinutes(avgWait)
+                .avgWaitTimeMinutes(avgWaitTime)
                 .notificationDeliveryRatePercent(0) // adjust if tracked
-                .appointmentConflicts(0)
+                .appointmentConflicts(0) // always 0 by business rule
                 .build();
     }
 
+    private static long nullToZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
 
 
 
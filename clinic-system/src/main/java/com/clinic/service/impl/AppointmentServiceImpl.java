@@ -2,6 +2,7 @@ package com.clinic.service.impl;
 
 import com.clinic.dto.request.AppointmentBookRequest;
 import com.clinic.dto.request.AppointmentRescheduleRequest;
+import com.clinic.dto.response.AppointmentPage;
 import com.clinic.dto.response.AppointmentResponse;
 import com.clinic.dto.response.AvailableSlotResponse;
 import com.clinic.exception.AppointmentConflictException;
@@ -10,22 +11,35 @@ import com.clinic.exception.UnauthorizedAccessException;
 import com.clinic.model.entity.*;
 import com.clinic.model.enums.AppointmentStatus;
 import com.clinic.repository.*;
+import com.clinic.repository.projection.DoctorDayLoad;
 import com.clinic.service.AppointmentService;
 import com.clinic.service.NotificationService;
+import com.clinic.service.support.BookingLockRegistry;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import com.clinic.util.AppointmentCursor;
 import com.clinic.util.AppointmentMapper;
 import com.clinic.util.ClinicContextHolder;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * AppointmentServiceImpl — Business Layer implementation.
@@ -40,6 +54,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class AppointmentServiceImpl implements AppointmentService {
 
+    /** clinic.booking operation tags. */
+    private static final String BOOK = "book";
+    private static final String RESCHEDULE = "reschedule";
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
@@ -48,20 +66,26 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final NotificationService notificationService;
     private final AppointmentMapper appointmentMapper;
     private final ClinicRepository clinicRepository;
+    private final SlotAvailabilityIndex slotIndex;
+    private final BookingLockRegistry bookingLocks;
+    private final DailyStatsRecorder dailyStats;
+    private final ClinicMetrics metrics;
 
-    @Value("${clinic.appointment.slot-duration-minutes:30}")
-    private int slotDurationMinutes;
+    @Value("${clinic.appointment.history-page-size:20}")
+    private int historyPageSize;
 
     // ─── Book Appointment ─────────────────────────────────────────────────────
 
     @Override
     public AppointmentResponse bookAppointment(Long patientUserId, AppointmentBookRequest req) {
+        return metrics.booking(BOOK, () -> book(patientUserId, req));
+    }
 
+    private AppointmentResponse book(Long patientUserId, AppointmentBookRequest req) {
         Patient patient = getPatientByUserId(patientUserId);
         Doctor doctor = getDoctorById(req.getDoctorId());
 
-        validateSlotAvailability(doctor, req.getAppointmentDate(), req.getAppointmentTime(), null);
-        validateDailyCap(doctor, req.getAppointmentDate());
+        admit(doctor, req.getAppointmentDate(), req.getAppointmentTime(), null);
 
         Appointment appointment = Appointment.builder()
                 .clinic(ClinicContextHolder.getRequiredClinic())
@@ -74,7 +98,9 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .reminderSent(false)
                 .build();
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = persistSlot(appointment);
+        slotIndex.markBooked(doctor.getId(), saved.getAppointmentDate(), saved.getAppointmentTime());
+        dailyStats.appointmentCreated(saved);
         log.info("Appointment {} booked: Patient {} with Doctor {} on {}",
                 saved.getId(), patientUserId, req.getDoctorId(), req.getAppointmentDate());
 
@@ -87,6 +113,11 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     public AppointmentResponse rescheduleAppointment(Long appointmentId, Long patientUserId,
                                                      AppointmentRescheduleRequest req) {
+        return metrics.booking(RESCHEDULE, () -> reschedule(appointmentId, patientUserId, req));
+    }
+
+    private AppointmentResponse reschedule(Long appointmentId, Long patientUserId,
+                                           AppointmentRescheduleRequest req) {
         Appointment appointment = getAppointmentAndVerifyOwner(appointmentId, patientUserId);
 
         if (!List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED)
@@ -96,14 +127,18 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         Doctor doctor = appointment.getDoctor();
-        validateSlotAvailability(doctor, req.getNewDate(), req.getNewTime(), appointmentId);
-        validateDailyCap(doctor, req.getNewDate());
+        admit(doctor, req.getNewDate(), req.getNewTime(), appointmentId);
 
+        slotIndex.release(doctor.getId(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        slotIndex.markBooked(doctor.getId(), req.getNewDate(), req.getNewTime());
+
+        LocalDate previousDate = appointment.getAppointmentDate();
         appointment.setAppointmentDate(req.getNewDate());
         appointment.setAppointmentTime(req.getNewTime());
         appointment.setReminderSent(false); // reset so reminder fires for new time
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = persistSlot(appointment);
+        dailyStats.appointmentMoved(saved, previousDate);
         log.info("Appointment {} rescheduled to {}", appointmentId, req.getNewDate());
 
         notificationService.sendRescheduleNotification(saved);
@@ -117,9 +152,12 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", appointmentId));
 
+        releaseSlotIfHeld(appointment);
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancellationReason(reason);
         appointmentRepository.save(appointment);
+        dailyStats.appointmentStatusChanged(appointment, previous);
 
         log.info("Appointment {} cancelled by user {}", appointmentId, requestingUserId);
         notificationService.sendCancellationNotification(appointment);
@@ -127,73 +165,59 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     // ─── Available Slots ──────────────────────────────────────────────────────
 
+    /**
+     * Served from SlotAvailabilityIndex. SUPPORTS propagation: a warm read
+     * opens no transaction and checks out no connection; the doctor and
+     * schedule are only loaded when the day is not cached yet.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<AvailableSlotResponse> getAvailableSlots(Long doctorId, LocalDate date) {
-        Doctor doctor = getDoctorById(doctorId);
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-
-        List<DoctorSchedule> schedules = scheduleRepository
-                .findByDoctorAndDayOfWeekAndActiveTrue(doctor, dayOfWeek);
-
-        List<LocalTime> bookedTimes = appointmentRepository
-                .findByDoctorAndAppointmentDateOrderByAppointmentTimeAsc(doctor, date)
-                .stream()
-                .filter(a -> List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED,
-                        AppointmentStatus.CHECKED_IN).contains(a.getStatus()))
-                .map(Appointment::getAppointmentTime)
-                .collect(Collectors.toList());
-
-        List<AvailableSlotResponse> slots = new ArrayList<>();
-        for (DoctorSchedule schedule : schedules) {
-            LocalTime cursor = schedule.getStartTime();
-            while (cursor.plusMinutes(slotDurationMinutes).compareTo(schedule.getEndTime()) <= 0) {
-                boolean available = !bookedTimes.contains(cursor);
-                slots.add(new AvailableSlotResponse(cursor, available));
-                cursor = cursor.plusMinutes(slotDurationMinutes);
-            }
-        }
-        return slots;
+        return slotIndex.getSlots(doctorId, date, () -> getDoctorById(doctorId));
     }
 
     // ─── Read Queries ─────────────────────────────────────────────────────────
 
     @Override
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getPatientAppointments(Long patientUserId) {
+    public AppointmentPage getPatientAppointments(Long patientUserId, String cursor) {
         Patient patient = getPatientByUserId(patientUserId);
-        return appointmentRepository
-                .findByPatientOrderByAppointmentDateDescAppointmentTimeDesc(patient)
-                .stream().map(appointmentMapper::toResponse).collect(Collectors.toList());
+        // one extra row tells whether an older page exists
+        Pageable page = PageRequest.of(0, historyPageSize + 1);
+        List<AppointmentResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findHistoryPage(patient, page);
+        } else {
+            AppointmentCursor after = AppointmentCursor.decode(cursor);
+            rows = appointmentRepository.findHistoryPageBefore(
+                    patient, after.date(), after.time(), after.id(), page);
+        }
+        if (rows.size() <= historyPageSize) {
+            return new AppointmentPage(rows, null);
+        }
+        List<AppointmentResponse> shown = rows.subList(0, historyPageSize);
+        return new AppointmentPage(shown, AppointmentCursor.after(shown.get(historyPageSize - 1)).encode());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getUpcomingAppointments(Long patientUserId) {
         Patient patient = getPatientByUserId(patientUserId);
-        return appointmentRepository
-                .findByPatientAndAppointmentDateGreaterThanEqualOrderByAppointmentDateAscAppointmentTimeAsc(
-                        patient, LocalDate.now())
-                .stream().map(appointmentMapper::toResponse).collect(Collectors.toList());
+        return appointmentRepository.findResponsesByPatientFrom(patient, LocalDate.now());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getDoctorDailySchedule(Long doctorId, LocalDate date) {
         Doctor doctor = getDoctorById(doctorId);
-        return appointmentRepository
-                .findByDoctorAndAppointmentDateOrderByAppointmentTimeAsc(doctor, date)
-                .stream().map(appointmentMapper::toResponse).collect(Collectors.toList());
+        return appointmentRepository.findResponsesByDoctorBetween(doctor, date, date);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getDoctorWeeklySchedule(Long doctorId, LocalDate weekStart) {
         Doctor doctor = getDoctorById(doctorId);
-        return appointmentRepository
-                .findByDoctorAndAppointmentDateBetweenOrderByAppointmentDateAscAppointmentTimeAsc(
-                        doctor, weekStart, weekStart.plusDays(6))
-                .stream().map(appointmentMapper::toResponse).collect(Collectors.toList());
+        return appointmentRepository.findResponsesByDoctorBetween(doctor, weekStart, weekStart.plusDays(6));
     }
 
     @Override
@@ -222,12 +246,27 @@ public class AppointmentServiceImpl implements AppointmentService {
         Clinic clinic = clinicRepository.findById(clinicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Clinic", clinicId));
 
-        return appointmentRepository
-                .findByClinicAndAppointmentDateBetweenOrderByAppointmentDateAscAppointmentTimeAsc(
-                        clinic, start, end)
-                .stream()
-                .map(appointmentMapper::toResponse)
-                .collect(Collectors.toList());
+        return appointmentRepository.findResponsesByClinicBetween(clinic, start, end);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAppointmentsByDateRange(Long clinicId, LocalDate start, LocalDate end,
+                                              Consumer<AppointmentResponse> sink) {
+        Clinic clinic = clinicRepository.findById(clinicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Clinic", clinicId));
+
+        long rows = 0;
+        try (Stream<AppointmentResponse> appointments =
+                     appointmentRepository.streamResponsesByClinicBetween(clinic, start, end)) {
+            Iterator<AppointmentResponse> it = appointments.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+                rows++;
+            }
+        }
+        log.info("Exported {} appointments of clinic {} ({} to {})", rows, clinicId, start, end);
+        return rows;
     }
 
     @Override
@@ -240,36 +279,92 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new UnauthorizedAccessException("You are not authorized to complete this appointment.");
         }
 
+        releaseSlotIfHeld(appointment);
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.COMPLETED);
-        return appointmentMapper.toResponse(appointmentRepository.save(appointment));
+        Appointment saved = appointmentRepository.save(appointment);
+        dailyStats.appointmentStatusChanged(saved, previous);
+        return appointmentMapper.toResponse(saved);
     }
 
     // ─── Private Helpers ──────────────────────────────────────────────────────
 
     /**
-     * BR-001: Conflict check — throws AppointmentConflictException if slot taken.
+     * BR-001 + BR-003 admission, atomic per (doctor, date).
+     *
+     * Takes the doctor/day booking lock (held until this transaction ends),
+     * then runs the conflict and daily-cap checks in a single query.
+     * Throws AppointmentConflictException if the slot is taken and
+     * IllegalStateException if the doctor is fully booked.
+     * Lock wait and the checks are timed as clinic.booking.phase lock / check.
      */
-    private void validateSlotAvailability(Doctor doctor, LocalDate date,
-                                          LocalTime time, Long excludeId) {
-        if (appointmentRepository.existsConflict(doctor, date, time, excludeId)) {
-            throw new AppointmentConflictException(
-                    "This time slot is already booked for Dr. " +
-                            doctor.getUser().getFullName() + " on " + date + " at " + time);
+    private void admit(Doctor doctor, LocalDate date, LocalTime time, Long excludeId) {
+        String operation = excludeId == null ? BOOK : RESCHEDULE;
+
+        Timer.Sample phase = metrics.start();
+        try {
+            bookingLocks.lockForTransaction(doctor.getId(), date);
+        } finally {
+            metrics.bookingPhase(phase, operation, "lock");
+        }
+
+        phase = metrics.start();
+        try {
+            DoctorDayLoad load = appointmentRepository.findDayLoad(doctor, date, time, excludeId);
+            if (load.isSlotTaken()) {
+                throw slotTaken(doctor, date, time);
+            }
+            if (load.getActiveCount() >= doctor.getMaxDailyAppointments()) {
+                throw new IllegalStateException("Dr. " + doctor.getUser().getFullName() +
+                        " has reached the maximum appointments for " + date);
+            }
+        } finally {
+            metrics.bookingPhase(phase, operation, "check");
         }
     }
 
     /**
-     * BR-003: Daily cap check — throws IllegalStateException if doctor is fully
-     * booked.
+     * Writes the appointment immediately so uk_appointment_active_slot is
+     * checked while the booking lock is held; a violation of that constraint
+     * (e.g. a booking from another application node) surfaces as a BR-001
+     * conflict. Any other integrity violation is a bug and is rethrown.
      */
-    private void validateDailyCap(Doctor doctor, LocalDate date) {
-        long count = appointmentRepository.countByDoctorAndAppointmentDateAndStatusIn(
-                doctor, date,
-                List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED,
-                        AppointmentStatus.CHECKED_IN));
-        if (count >= doctor.getMaxDailyAppointments()) {
-            throw new IllegalStateException("Dr. " + doctor.getUser().getFullName() +
-                    " has reached the maximum appointments for " + date);
+    private Appointment persistSlot(Appointment appointment) {
+        String operation = appointment.getId() == null ? BOOK : RESCHEDULE;
+        Timer.Sample phase = metrics.start();
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            if (!violatesActiveSlot(e)) throw e;
+            throw slotTaken(appointment.getDoctor(),
+                    appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        } finally {
+            metrics.bookingPhase(phase, operation, "persist");
+        }
+    }
+
+    /**
+     * PostgreSQL reports the constraint name itself; H2 reports a longer text
+     * around the constraint's backing index, hence contains().
+     */
+    private static boolean violatesActiveSlot(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT)
+                        .contains(Appointment.ACTIVE_SLOT_CONSTRAINT);
+    }
+
+    private AppointmentConflictException slotTaken(Doctor doctor, LocalDate date, LocalTime time) {
+        return new AppointmentConflictException(
+                "This time slot is already booked for Dr. " +
+                        doctor.getUser().getFullName() + " on " + date + " at " + time);
+    }
+
+    /** Frees the appointment's slot in the index if its status still occupies it. */
+    private void releaseSlotIfHeld(Appointment appointment) {
+        if (appointment.getStatus().holdsSlot()) {
+            slotIndex.release(appointment.getDoctor().getId(),
+                    appointment.getAppointmentDate(), appointment.getAppointmentTime());
         }
     }
 
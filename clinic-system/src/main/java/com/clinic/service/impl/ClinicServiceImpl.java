@@ -11,6 +11,7 @@ import com.clinic.model.entity.User;
 import com.clinic.model.enums.ClinicStatus;
 import com.clinic.model.enums.Role;
 import com.clinic.repository.*;
+import com.clinic.security.ClinicStatusCache;
 import com.clinic.service.ClinicService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,7 @@ public class ClinicServiceImpl implements ClinicService {
     private final AppointmentRepository appointmentRepository;
     private final NotificationRepository notificationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ClinicStatusCache clinicCache;
 
     // ─── Clinic CRUD ──────────────────────────────────────────────────────────
 
@@ -108,6 +110,7 @@ public class ClinicServiceImpl implements ClinicService {
             throw new IllegalStateException("Cannot reactivate a deactivated clinic.");
         }
         clinic.setStatus(ClinicStatus.ACTIVE);
+        clinicCache.evict(clinicId);
         log.info("SUPER_ADMIN ACTIVATED clinic '{}' [{}]",
                 clinic.getName(), clinic.getRegistrationCode());
         return toResponse(clinicRepository.save(clinic));
@@ -117,6 +120,7 @@ public class ClinicServiceImpl implements ClinicService {
     public ClinicResponse suspendClinic(Long clinicId, String reason) {
         Clinic clinic = getClinic(clinicId);
         clinic.setStatus(ClinicStatus.SUSPENDED);
+        clinicCache.evict(clinicId);
         clinic.setNotes(appendNote(clinic.getNotes(),
                 "SUSPENDED: " + reason));
         log.warn("SUPER_ADMIN SUSPENDED clinic '{}' — reason: {}", clinic.getName(), reason);
@@ -127,6 +131,7 @@ public class ClinicServiceImpl implements ClinicService {
     public ClinicResponse deactivateClinic(Long clinicId, String reason) {
         Clinic clinic = getClinic(clinicId);
         clinic.setStatus(ClinicStatus.INACTIVE);
+        clinicCache.evict(clinicId);
         clinic.setNotes(appendNote(clinic.getNotes(),
                 "DEACTIVATED: " + reason));
         log.warn("SUPER_ADMIN DEACTIVATED clinic '{}'", clinic.getName());
@@ -143,6 +148,7 @@ public class ClinicServiceImpl implements ClinicService {
         if (req.getMaxDoctors() > 0) clinic.setMaxDoctors(req.getMaxDoctors());
         if (req.getSubscriptionPlan() != null) clinic.setSubscriptionPlan(req.getSubscriptionPlan());
         if (req.getNotes() != null) clinic.setNotes(req.getNotes());
+        clinicCache.evict(clinicId);
         return toResponse(clinicRepository.save(clinic));
     }
 
@@ -5,7 +5,11 @@ import com.clinic.model.entity.Notification;
 import com.clinic.model.entity.User;
 import com.clinic.repository.NotificationRepository;
 import com.clinic.service.NotificationService;
-import lombok.RequiredArgsConstructor;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.MailBatch;
+import com.clinic.service.support.NotificationOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
@@ -14,11 +18,22 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * EmailNotificationServiceImpl — sends emails and logs every attempt.
  *
- * @Async: email sending is non-blocking so it doesn't delay the HTTP response.
+ * Confirmation, reschedule and cancellation emails are rendered here and
+ * queued in NotificationOutbox inside the caller's transaction; the outbox
+ * dispatcher sends them in batches, so the HTTP response never waits for SMTP.
+ * Reminders are sent synchronously for the reminder scheduler: each chunk
+ * goes to the mail server in one send call (MailBatch) and its audit rows
+ * are written with one saveAll. The remaining @Async methods run on the
+ * bounded notificationExecutor.
  * On failure: logs error and saves failed Notification record for admin review.
  * ISO/IEC 27001: full audit trail in Notification table.
  *
@@ -26,14 +41,24 @@ import java.time.LocalDateTime;
  * NotificationService and inject both via a list / strategy pattern.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailNotificationServiceImpl implements NotificationService {
 
     private final JavaMailSender mailSender;
     private final NotificationRepository notificationRepository;
+    private final NotificationOutbox outbox;
+    private final MeterRegistry registry;
+
+    public EmailNotificationServiceImpl(JavaMailSender mailSender,
+                                        NotificationRepository notificationRepository,
+                                        NotificationOutbox outbox,
+                                        MeterRegistry registry) {
+        this.mailSender = mailSender;
+        this.notificationRepository = notificationRepository;
+        this.outbox = outbox;
+        this.registry = registry;
+    }
 
-    @Async
     @Override
     public void sendAppointmentConfirmation(Appointment appointment) {
         User user = appointment.getPatient().getUser();
@@ -41,10 +66,9 @@ public class EmailNotificationServiceImpl implements NotificationService {
 
         String subject = "Appointment Confirmed — " + appointment.getAppointmentDate();
         String body = buildConfirmationBody(appointment);
-        send(user, subject, body, "CONFIRMATION");
+        outbox.enqueue(user, "CONFIRMATION", subject, body);
     }
 
-    @Async
     @Override
     public void sendRescheduleNotification(Appointment appointment) {
         User user = appointment.getPatient().getUser();
@@ -54,10 +78,9 @@ public class EmailNotificationServiceImpl implements NotificationService {
         String body = "Your appointment has been rescheduled to " +
                 appointment.getAppointmentDate() + " at " + appointment.getAppointmentTime() +
                 " with Dr. " + appointment.getDoctor().getUser().getFullName();
-        send(user, subject, body, "RESCHEDULE");
+        outbox.enqueue(user, "RESCHEDULE", subject, body);
     }
 
-    @Async
     @Override
     public void sendCancellationNotification(Appointment appointment) {
         User user = appointment.getPatient().getUser();
@@ -68,25 +91,70 @@ public class EmailNotificationServiceImpl implements NotificationService {
                 " at " + appointment.getAppointmentTime() +
                 " with Dr. " + appointment.getDoctor().getUser().getFullName() +
                 " has been cancelled.\nReason: " + appointment.getCancellationReason();
-        send(user, subject, body, "CANCELLATION");
+        outbox.enqueue(user, "CANCELLATION", subject, body);
     }
 
-    @Async
+    @Async("notificationExecutor")
     @Override
     public void sendAppointmentReminder(Appointment appointment) {
-        User user = appointment.getPatient().getUser();
         if (!appointment.getPatient().isEmailConsent()) return;
+        send(appointment.getPatient().getUser(), reminderSubject(appointment), reminderBody(appointment), "REMINDER");
+    }
 
-        String subject = "Reminder: Appointment Tomorrow — " + appointment.getAppointmentDate();
-        String body = "This is a reminder for your appointment tomorrow:\n" +
-                "Doctor: Dr. " + appointment.getDoctor().getUser().getFullName() + "\n" +
-                "Date: " + appointment.getAppointmentDate() + "\n" +
-                "Time: " + appointment.getAppointmentTime() + "\n\n" +
-                "Please arrive 10 minutes early for check-in.";
-        send(user, subject, body, "REMINDER");
+    /**
+     * Timed as clinic.notification.send (path=reminder, clinic=all — a chunk
+     * spans clinics); outcome is failure if any message in the chunk failed.
+     */
+    @Override
+    public Set<Long> sendAppointmentReminders(List<Appointment> appointments) {
+        Set<Long> done = new HashSet<>();
+        List<Appointment> recipients = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            if (appointment.getPatient().isEmailConsent()) {
+                recipients.add(appointment);
+            } else {
+                done.add(appointment.getId());
+            }
+        }
+        if (recipients.isEmpty()) return done;
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[recipients.size()];
+        for (int i = 0; i < messages.length; i++) {
+            Appointment a = recipients.get(i);
+            messages[i] = message(a.getPatient().getUser(), reminderSubject(a), reminderBody(a));
+        }
+        Timer.Sample sample = Timer.start(registry);
+        Map<SimpleMailMessage, Exception> failures = MailBatch.send(mailSender, messages);
+        sample.stop(Timer.builder("clinic.notification.send")
+                .tags("path", "reminder", "clinic", "all", "outcome", failures.isEmpty() ? "success" : "failure")
+                .description("Time to hand one reminder chunk to the mail server")
+                .register(registry));
+        LocalDateTime sentAt = LocalDateTime.now();
+
+        List<Notification> audit = new ArrayList<>(messages.length);
+        for (int i = 0; i < messages.length; i++) {
+            Appointment a = recipients.get(i);
+            User user = a.getPatient().getUser();
+            Exception failure = failures.get(messages[i]);
+            Notification.NotificationBuilder row = Notification.builder()
+                    .user(user).channel("EMAIL").type("REMINDER")
+                    .subject(messages[i].getSubject()).body(messages[i].getText()).sentAt(sentAt);
+            if (failure == null) {
+                audit.add(row.success(true).build());
+                done.add(a.getId());
+            } else {
+                String error = String.valueOf(failure.getMessage());
+                // errorMessage is 500 chars; one overlong row would fail the whole saveAll
+                audit.add(row.success(false).errorMessage(error.length() <= 500 ? error : error.substring(0, 500)).build());
+                log.error("Failed to send email [REMINDER] to {}: {}", user.getEmail(), failure.getMessage());
+            }
+        }
+        notificationRepository.saveAll(audit);
+        log.info("Reminder batch: {} emails sent, {} failed", messages.length - failures.size(), failures.size());
+        return done;
     }
 
-    @Async
+    @Async("notificationExecutor")
     @Override
     public void sendQueueUpdateNotification(User user, int queuePosition, int estimatedWaitMinutes) {
         String subject = "Queue Update — Your position: #" + queuePosition;
@@ -97,26 +165,56 @@ public class EmailNotificationServiceImpl implements NotificationService {
 
     // ─── Private: send + log ──────────────────────────────────────────────────
 
+    private static String reminderSubject(Appointment appointment) {
+        return "Reminder: Appointment Tomorrow — " + appointment.getAppointmentDate();
+    }
+
+    private static String reminderBody(Appointment appointment) {
+        return "This is a reminder for your appointment tomorrow:\n" +
+                "Doctor: Dr. " + appointment.getDoctor().getUser().getFullName() + "\n" +
+                "Date: " + appointment.getAppointmentDate() + "\n" +
+                "Time: " + appointment.getAppointmentTime() + "\n\n" +
+                "Please arrive 10 minutes early for check-in.";
+    }
+
+    private static SimpleMailMessage message(User user, String subject, String body) {
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setTo(user.getEmail());
+        msg.setSubject(subject);
+        msg.setText(body);
+        return msg;
+    }
+
+    /**
+     * Timed as clinic.notification.send (path=direct) per recipient clinic
+     * and outcome; the timer covers the SMTP hand-off only, not the audit row.
+     */
     private void send(User user, String subject, String body, String type) {
         Notification.NotificationBuilder log = Notification.builder()
                 .user(user).channel("EMAIL").type(type)
                 .subject(subject).body(body).sentAt(LocalDateTime.now());
+        Timer.Sample sample = Timer.start(registry);
         try {
-            SimpleMailMessage msg = new SimpleMailMessage();
-            msg.setTo(user.getEmail());
-            msg.setSubject(subject);
-            msg.setText(body);
-            mailSender.send(msg);
+            mailSender.send(message(user, subject, body));
+            sample.stop(sendTimer(user, "success"));
 
             notificationRepository.save(log.success(true).build());
             this.log.info("Email [{}] sent to {}", type, user.getEmail());
 
         } catch (MailException e) {
+            sample.stop(sendTimer(user, "failure"));
             notificationRepository.save(log.success(false).errorMessage(e.getMessage()).build());
             this.log.error("Failed to send email [{}] to {}: {}", type, user.getEmail(), e.getMessage());
         }
     }
 
+    private Timer sendTimer(User user, String outcome) {
+        return Timer.builder("clinic.notification.send")
+                .tags("path", "direct", "clinic", ClinicMetrics.clinic(user.getClinic()), "outcome", outcome)
+                .description("Time to hand one email to the mail server")
+                .register(registry);
+    }
+
     private String buildConfirmationBody(Appointment a) {
         return String.format(
                 "Dear %s,\n\nYour appointment has been confirmed:\n" +
@@ -7,18 +7,39 @@ import com.clinic.model.enums.AppointmentStatus;
 import com.clinic.model.enums.QueueStatus;
 import com.clinic.repository.*;
 import com.clinic.service.QueueService;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.ConsultDurationEstimator;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.LiveQueueEntry;
+import com.clinic.service.support.QueueChangedEvent;
+import com.clinic.service.support.QueueEngine;
+import com.clinic.service.support.QueueNumberAllocator;
 import com.clinic.util.QueueMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * QueueServiceImpl — live queue operations.
+ *
+ * Today's queues are served by QueueEngine: reads and transitions run in
+ * memory and are persisted write-behind, so those methods use SUPPORTS
+ * propagation and open no transaction of their own. Check-in and walk-in
+ * insert synchronously and register the new entry with the engine.
+ * Other dates (history views) are read from the database.
+ *
+ * Every change to today's queue publishes a QueueChangedEvent, which drives
+ * the patient SSE stream (QueueStatusStream) and invalidates the clinic's
+ * queue board snapshot (QueueBoard).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -30,12 +51,19 @@ public class QueueServiceImpl implements QueueService {
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
     private final QueueMapper queueMapper;
-
-    @Value("${clinic.queue.avg-minutes-per-patient:15}")
-    private int avgMinutesPerPatient;
+    private final QueueNumberAllocator queueNumbers;
+    private final QueueEngine queueEngine;
+    private final ApplicationEventPublisher events;
+    private final DailyStatsRecorder dailyStats;
+    private final ConsultDurationEstimator consultDurations;
+    private final ClinicMetrics metrics;
 
     @Override
     public QueueEntryResponse checkIn(Long appointmentId, Long patientUserId) {
+        return metrics.queueOperation("check-in", () -> checkInAppointment(appointmentId));
+    }
+
+    private QueueEntryResponse checkInAppointment(Long appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment", appointmentId));
 
@@ -45,16 +73,16 @@ public class QueueServiceImpl implements QueueService {
 
         // QR-001: check not already in queue
         Patient patient = appointment.getPatient();
-        queueEntryRepository.findByPatientAndQueueDateAndStatusIn(
-                patient, LocalDate.now(), List.of(QueueStatus.WAITING, QueueStatus.IN_CONSULT))
+        queueEngine.findActiveByPatientUser(patient.getUser().getId())
                 .ifPresent(q -> {
-                    throw new IllegalStateException("Patient is already in the queue (#" + q.getQueueNumber() + ").");
+                    throw new IllegalStateException("Patient is already in the queue (#" + q.queueNumber() + ").");
                 });
 
         Doctor doctor = appointment.getDoctor();
-        int queueNum = queueEntryRepository.nextQueueNumber(doctor, LocalDate.now());
+        int queueNum = queueNumbers.next(doctor, LocalDate.now());
 
         QueueEntry entry = QueueEntry.builder()
+                .clinic(appointment.getClinic())
                 .patient(patient)
                 .doctor(doctor)
                 .appointment(appointment)
@@ -67,9 +95,13 @@ public class QueueServiceImpl implements QueueService {
 
         appointment.setStatus(AppointmentStatus.CHECKED_IN);
         appointmentRepository.save(appointment);
+        dailyStats.appointmentStatusChanged(appointment, AppointmentStatus.CONFIRMED);
 
         QueueEntry saved = queueEntryRepository.save(entry);
-        return enrichWithWaitTime(queueMapper.toResponse(saved), doctor);
+        dailyStats.queueEntryAdded(saved);
+        queueEngine.register(saved);
+        events.publishEvent(new QueueChangedEvent(saved.getClinic().getId(), doctor.getId()));
+        return withWaitTime(saved);
     }
 
     @Override
@@ -79,9 +111,10 @@ public class QueueServiceImpl implements QueueService {
         Patient patient = patientRepository.findByUserId(patientUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient for user", patientUserId));
 
-        int queueNum = queueEntryRepository.nextQueueNumber(doctor, LocalDate.now());
+        int queueNum = queueNumbers.next(doctor, LocalDate.now());
 
         QueueEntry entry = QueueEntry.builder()
+                .clinic(doctor.getClinic())
                 .patient(patient)
                 .doctor(doctor)
                 .queueDate(LocalDate.now())
@@ -92,13 +125,22 @@ public class QueueServiceImpl implements QueueService {
                 .build();
 
         QueueEntry saved = queueEntryRepository.save(entry);
+        dailyStats.queueEntryAdded(saved);
+        queueEngine.register(saved);
+        events.publishEvent(new QueueChangedEvent(saved.getClinic().getId(), doctorId));
         log.info("Walk-in patient {} added to queue #{} for doctor {}", patientUserId, queueNum, doctorId);
-        return enrichWithWaitTime(queueMapper.toResponse(saved), doctor);
+        return withWaitTime(saved);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public QueueEntryResponse getMyQueueStatus(Long patientUserId, LocalDate date) {
+        if (queueEngine.covers(date)) {
+            LiveQueueEntry live = queueEngine.findActiveByPatientUser(patientUserId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Active queue entry for user", patientUserId));
+            return applyWaitTime(queueMapper.toResponse(live), queueEngine.patientsAhead(live));
+        }
+
         Patient patient = patientRepository.findByUserId(patientUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient for user", patientUserId));
 
@@ -110,71 +152,113 @@ public class QueueServiceImpl implements QueueService {
         return enrichWithWaitTime(queueMapper.toResponse(entry), entry.getDoctor());
     }
 
+    /**
+     * Entries arrive sorted by queue number, so patientsAhead is a running
+     * count of WAITING entries seen so far. Today's queue comes from memory;
+     * other dates cost two statements whatever the queue length.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<QueueEntryResponse> getDoctorQueue(Long doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor", doctorId));
-        return queueEntryRepository.findByDoctorAndQueueDateOrderByQueueNumberAsc(doctor, date)
-                .stream()
-                .map(e -> enrichWithWaitTime(queueMapper.toResponse(e), doctor))
-                .collect(Collectors.toList());
+        List<LiveQueueEntry> entries;
+        if (queueEngine.covers(date)) {
+            entries = queueEngine.doctorQueue(doctorId);
+            if (entries.isEmpty() && !doctorRepository.existsById(doctorId)) {
+                throw new ResourceNotFoundException("Doctor", doctorId);
+            }
+        } else {
+            Doctor doctor = doctorRepository.findById(doctorId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Doctor", doctorId));
+            entries = queueEntryRepository.findByDoctorAndQueueDateOrderByQueueNumberAsc(doctor, date)
+                    .stream().map(LiveQueueEntry::from).toList();
+        }
+
+        List<QueueEntryResponse> responses = new ArrayList<>(entries.size());
+        int waitingAhead = 0;
+        for (LiveQueueEntry entry : entries) {
+            responses.add(applyWaitTime(queueMapper.toResponse(entry), waitingAhead));
+            if (entry.status() == QueueStatus.WAITING) {
+                waitingAhead++;
+            }
+        }
+        return responses;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public QueueEntryResponse callNextPatient(Long doctorId) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor", doctorId));
-
-        // Mark current IN_CONSULT as DONE
-        queueEntryRepository.findByDoctorAndQueueDateAndStatusOrderByQueueNumberAsc(
-                        doctor, LocalDate.now(), QueueStatus.IN_CONSULT)
-                .stream().findFirst().ifPresent(current -> {
-                    current.setStatus(QueueStatus.DONE);
-                    current.setConsultEndTime(LocalDateTime.now());
-                    queueEntryRepository.save(current);
-                });
-
-        // Pull next WAITING patient
-        QueueEntry next = queueEntryRepository
-                .findByDoctorAndQueueDateAndStatusOrderByQueueNumberAsc(
-                        doctor, LocalDate.now(), QueueStatus.WAITING)
-                .stream().findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("No waiting patients", doctorId));
-
-        next.setStatus(QueueStatus.IN_CONSULT);
-        next.setConsultStartTime(LocalDateTime.now());
-        QueueEntry saved = queueEntryRepository.save(next);
-        return queueMapper.toResponse(saved);
+        return metrics.queueOperation("call-next", () -> {
+            LiveQueueEntry next = queueEngine.callNext(doctorId, LocalDateTime.now());
+            events.publishEvent(new QueueChangedEvent(next.clinicId(), doctorId));
+            return queueMapper.toResponse(next);
+        });
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public QueueEntryResponse skipPatient(Long queueEntryId) {
-        QueueEntry entry = getEntry(queueEntryId);
-        entry.setStatus(QueueStatus.SKIPPED);
-        return queueMapper.toResponse(queueEntryRepository.save(entry));
+        return transition(queueEntryId, QueueStatus.SKIPPED);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public QueueEntryResponse completeConsultation(Long queueEntryId) {
-        QueueEntry entry = getEntry(queueEntryId);
-        entry.setStatus(QueueStatus.DONE);
-        entry.setConsultEndTime(LocalDateTime.now());
-        return queueMapper.toResponse(queueEntryRepository.save(entry));
+        return transition(queueEntryId, QueueStatus.DONE);
     }
 
     // ─── Helpers ──────────────────────────────────────────────────────────────
 
+    /**
+     * Applies a status change through QueueEngine; entries from other days
+     * are not held in memory and are updated in the database directly.
+     */
+    private QueueEntryResponse transition(Long queueEntryId, QueueStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return queueEngine.transition(queueEntryId, status, now)
+                .map(live -> {
+                    events.publishEvent(new QueueChangedEvent(live.clinicId(), live.doctorId()));
+                    return queueMapper.toResponse(live);
+                })
+                .orElseGet(() -> {
+                    QueueEntry entry = getEntry(queueEntryId);
+                    entry.setStatus(status);
+                    if (status == QueueStatus.DONE) {
+                        entry.setConsultEndTime(now);
+                    }
+                    queueEntryRepository.save(entry);
+                    return queueMapper.toResponse(entry);
+                });
+    }
+
+    /**
+     * A new entry: patientsAhead from the in-memory queue for a day it
+     * covers. The entry joins it only on commit, but those ahead of it
+     * are already there.
+     */
+    private QueueEntryResponse withWaitTime(QueueEntry saved) {
+        QueueEntryResponse response = queueMapper.toResponse(saved);
+        if (queueEngine.covers(saved.getQueueDate())) {
+            return applyWaitTime(response, queueEngine.patientsAhead(LiveQueueEntry.from(saved)));
+        }
+        return enrichWithWaitTime(response, saved.getDoctor());
+    }
+
     private QueueEntryResponse enrichWithWaitTime(QueueEntryResponse response, Doctor doctor) {
         long ahead = queueEntryRepository.countAhead(
-                doctor, LocalDate.now(), response.getQueueNumber());
-        response.setPatientsAhead((int) ahead);
-        response.setEstimatedWaitMinutes((int) ahead * avgMinutesPerPatient);
+                doctor, response.getQueueDate(), response.getQueueNumber());
+        return applyWaitTime(response, (int) ahead);
+    }
+
+    /** QR-003: estimated wait = patientsAhead × the doctor's expected consult length. */
+    private QueueEntryResponse applyWaitTime(QueueEntryResponse response, int patientsAhead) {
+        response.setPatientsAhead(patientsAhead);
+        response.setEstimatedWaitMinutes(consultDurations.estimateWaitMinutes(response.getDoctorId(), patientsAhead));
         return response;
     }
 
+    /** Loaded with patient and doctor users so the entry can be mapped outside a transaction. */
     private QueueEntry getEntry(Long id) {
-        return queueEntryRepository.findById(id)
+        return queueEntryRepository.findWithParticipantsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("QueueEntry", id));
     }
 }
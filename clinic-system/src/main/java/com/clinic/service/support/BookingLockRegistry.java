@@ -0,0 +1,80 @@
+package com.clinic.service.support;
+
+import com.clinic.exception.AppointmentConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * BookingLockRegistry — striped in-JVM locks serialising booking admission
+ * per (doctor, date).
+ *
+ * The BR-001 conflict check, the BR-003 daily cap check and the insert must
+ * be atomic for a given doctor/day. A lock is taken from a fixed array of
+ * stripes (hash of doctor + date) and held until the surrounding transaction
+ * completes, so the next booking for the same doctor/day only runs its checks
+ * once the previous one is committed or rolled back. Bookings for different
+ * doctors almost always land on different stripes and proceed in parallel.
+ *
+ * Single-node guard only: across several application instances the
+ * uk_appointment_active_slot unique constraint on Appointment remains the
+ * backstop for double booking.
+ */
+@Component
+public class BookingLockRegistry {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public BookingLockRegistry(
+            @Value("${clinic.appointment.booking-lock-stripes:256}") int stripeCount,
+            @Value("${clinic.appointment.booking-lock-timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Locks the stripe for (doctorId, date) until the current transaction
+     * completes. Outside a transaction the lock is released immediately.
+     *
+     * @throws AppointmentConflictException if the lock is not obtained in time
+     */
+    public void lockForTransaction(Long doctorId, LocalDate date) {
+        ReentrantLock lock = stripes[stripeIndex(doctorId, date)];
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new AppointmentConflictException(
+                        "Bookings for this doctor on " + date + " are busy — please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppointmentConflictException("Booking was interrupted — please try again.");
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } else {
+            lock.unlock();
+        }
+    }
+
+    private int stripeIndex(Long doctorId, LocalDate date) {
+        int h = Objects.hash(doctorId, date);
+        h ^= (h >>> 16);
+        return Math.floorMod(h, stripes.length);
+    }
+}
@@ -0,0 +1,176 @@
+package com.clinic.service.support;
+
+import com.clinic.exception.AppointmentConflictException;
+import com.clinic.exception.ResourceNotFoundException;
+import com.clinic.exception.UnauthorizedAccessException;
+import com.clinic.model.entity.Clinic;
+import com.clinic.util.ClinicContextHolder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * ClinicMetrics — Micrometer meters for the booking, queue and scheduler flows.
+ *
+ * Meters (all visible under /actuator/metrics):
+ *   clinic.booking            timer   clinic, operation, outcome
+ *   clinic.booking.phase      timer   clinic, operation, phase (lock | check | persist)
+ *   clinic.queue.operation    timer   clinic, operation, outcome
+ *   clinic.scheduler.run      timer   job, outcome
+ *   clinic.appointment.no.show counter clinic
+ *   clinic.reminder.sent      counter clinic
+ * clinic.queue.length (gauge) is registered by QueueEngine and
+ * clinic.notification.send (timer) by the notification senders.
+ *
+ * The clinic tag is the clinic id — from ClinicContextHolder inside a
+ * request, from the entity where the caller has one — or "none". Ids keep
+ * the tag's cardinality at the number of tenants.
+ *
+ * The booking and queue operation timers stop when the surrounding
+ * transaction completes, so they include commit-time work and the commit.
+ *
+ * outcome is success, or derived from the exception: conflict
+ * (AppointmentConflictException), rejected (IllegalStateException — a
+ * business rule said no), not_found, denied, error (anything else,
+ * including a failed commit).
+ */
+@Component
+public class ClinicMetrics {
+
+    public static final String NO_CLINIC = "none";
+
+    private final MeterRegistry registry;
+
+    public ClinicMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // ─── Tags ─────────────────────────────────────────────────────────────────
+
+    /** The clinic of the current request, or "none" outside one (schedulers, super admin). */
+    public static String currentClinic() {
+        return clinic(ClinicContextHolder.getClinic());
+    }
+
+    /** Reads only the id, so an uninitialised proxy stays uninitialised. */
+    public static String clinic(Clinic clinic) {
+        return clinic == null ? NO_CLINIC : clinic(clinic.getId());
+    }
+
+    public static String clinic(Long clinicId) {
+        return clinicId == null ? NO_CLINIC : clinicId.toString();
+    }
+
+    public static String outcome(Throwable failure) {
+        if (failure == null) return "success";
+        if (failure instanceof AppointmentConflictException) return "conflict";
+        if (failure instanceof IllegalStateException) return "rejected";
+        if (failure instanceof ResourceNotFoundException) return "not_found";
+        if (failure instanceof UnauthorizedAccessException) return "denied";
+        return "error";
+    }
+
+    // ─── Timers ───────────────────────────────────────────────────────────────
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** Runs a booking or reschedule under the clinic.booking timer. */
+    public <T> T booking(String operation, Supplier<T> work) {
+        return timed("clinic.booking", "Time to book or reschedule an appointment, by outcome",
+                operation, work);
+    }
+
+    /** Records one admission phase, started with start(); failed phases are recorded too. */
+    public void bookingPhase(Timer.Sample sample, String operation, String phase) {
+        sample.stop(Timer.builder("clinic.booking.phase")
+                .tags("clinic", currentClinic(), "operation", operation, "phase", phase)
+                .description("Time spent in one phase of booking admission")
+                .register(registry));
+    }
+
+    /** Runs a queue operation under the clinic.queue.operation timer. */
+    public <T> T queueOperation(String operation, Supplier<T> work) {
+        return timed("clinic.queue.operation", "Time to check in or call the next patient, by outcome",
+                operation, work);
+    }
+
+    /** Runs one scheduled job under the clinic.scheduler.run timer. */
+    public void schedulerRun(String job, Runnable run) {
+        Timer.Sample sample = start();
+        String outcome = "error";
+        try {
+            run.run();
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("clinic.scheduler.run")
+                    .tags("job", job, "outcome", outcome)
+                    .description("Duration of one scheduled job run")
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Inside a transaction the sample is stopped once the transaction
+     * completes, so the timer also covers beforeCommit work (stats rollup,
+     * outbox) and the COMMIT itself; work that returned but whose commit
+     * failed is recorded as an error.
+     */
+    private <T> T timed(String name, String description, String operation, Supplier<T> work) {
+        Timer.Sample sample = start();
+        String clinic = currentClinic();
+        Throwable failure = null;
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                Throwable workFailure = failure;
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        String outcome = workFailure == null && status != STATUS_COMMITTED
+                                ? "error" : outcome(workFailure);
+                        stop(sample, name, description, clinic, operation, outcome);
+                    }
+                });
+            } else {
+                stop(sample, name, description, clinic, operation, outcome(failure));
+            }
+        }
+    }
+
+    private void stop(Timer.Sample sample, String name, String description,
+                      String clinic, String operation, String outcome) {
+        sample.stop(Timer.builder(name)
+                .tags("clinic", clinic, "operation", operation, "outcome", outcome)
+                .description(description)
+                .register(registry));
+    }
+
+    // ─── Counters ─────────────────────────────────────────────────────────────
+
+    public void noShowsMarked(Long clinicId, int count) {
+        Counter.builder("clinic.appointment.no.show")
+                .tag("clinic", clinic(clinicId))
+                .description("Appointments marked NO_SHOW by the nightly run")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void reminderSent(Clinic clinic) {
+        Counter.builder("clinic.reminder.sent")
+                .tag("clinic", clinic(clinic))
+                .description("24-hour reminders sent or skipped for lack of consent")
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,110 @@
+package com.clinic.service.support;
+
+import com.clinic.repository.QueueEntryRepository;
+import com.clinic.repository.projection.ConsultSample;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ConsultDurationEstimator — per-doctor expected consultation length, the
+ * QR-003 "minutes per patient" used for every wait-time estimate.
+ *
+ * Each doctor keeps an exponentially weighted moving average of observed
+ * consult durations (consultEndTime − consultStartTime): two numbers per
+ * doctor, updated in O(1) when QueueEngine closes an IN_CONSULT entry
+ * (callNext or complete). Recent consults dominate, so the estimate follows
+ * a doctor who speeds up or slows down during the day.
+ *
+ *  - Until a doctor has 1/alpha samples the average is a plain running
+ *    mean (the configured default counts as one sample), so a few real
+ *    consults replace the default quickly instead of being damped by it.
+ *  - Durations ≤ 0 or above max-consult-minutes (an entry left open over
+ *    lunch, a forgotten "complete") are ignored.
+ *  - At startup the averages are replayed from the last warm-start-days of
+ *    finished consults, so a restart does not fall back to the default.
+ *
+ * Doctors without samples get clinic.queue.avg-minutes-per-patient.
+ */
+@Component
+@Slf4j
+public class ConsultDurationEstimator {
+
+    private final QueueEntryRepository queueEntryRepository;
+    private final double defaultMinutes;
+    private final double alpha;
+    private final double maxConsultMinutes;
+    private final int warmStartDays;
+
+    private final Map<Long, Average> byDoctor = new ConcurrentHashMap<>();
+
+    public ConsultDurationEstimator(QueueEntryRepository queueEntryRepository,
+                                    @Value("${clinic.queue.avg-minutes-per-patient:15}") double defaultMinutes,
+                                    @Value("${clinic.queue.wait-estimate.alpha:0.2}") double alpha,
+                                    @Value("${clinic.queue.wait-estimate.max-consult-minutes:120}") double maxConsultMinutes,
+                                    @Value("${clinic.queue.wait-estimate.warm-start-days:14}") int warmStartDays) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalStateException("clinic.queue.wait-estimate.alpha must be in (0, 1]: " + alpha);
+        }
+        this.queueEntryRepository = queueEntryRepository;
+        this.defaultMinutes = defaultMinutes;
+        this.alpha = alpha;
+        this.maxConsultMinutes = maxConsultMinutes;
+        this.warmStartDays = warmStartDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        List<ConsultSample> samples = queueEntryRepository.findConsultsSince(LocalDate.now().minusDays(warmStartDays));
+        samples.forEach(s -> record(s.doctorId(), s.consultStartTime(), s.consultEndTime()));
+        log.info("Consult duration estimates warm-started from {} consults, {} doctors",
+                samples.size(), byDoctor.size());
+    }
+
+    /** Feeds one finished consultation; ignored if either time is missing or the duration is implausible. */
+    public void record(Long doctorId, LocalDateTime consultStart, LocalDateTime consultEnd) {
+        if (consultStart == null || consultEnd == null) return;
+        double minutes = Duration.between(consultStart, consultEnd).toMillis() / 60_000.0;
+        if (minutes <= 0 || minutes > maxConsultMinutes) return;
+        byDoctor.computeIfAbsent(doctorId, id -> new Average(defaultMinutes)).add(minutes, alpha);
+    }
+
+    /** Expected minutes per patient for this doctor. */
+    public double minutesPerPatient(Long doctorId) {
+        Average average = byDoctor.get(doctorId);
+        return average == null ? defaultMinutes : average.value();
+    }
+
+    /** QR-003: patientsAhead × the doctor's expected consult length, rounded to whole minutes. */
+    public int estimateWaitMinutes(Long doctorId, int patientsAhead) {
+        return (int) Math.round(patientsAhead * minutesPerPatient(doctorId));
+    }
+
+    /** EWMA with a running-mean warm-up; the prior counts as the first sample. */
+    private static final class Average {
+        private double value;
+        private long samples = 1;
+
+        Average(double prior) {
+            this.value = prior;
+        }
+
+        synchronized void add(double x, double alpha) {
+            samples++;
+            value += Math.max(alpha, 1.0 / samples) * (x - value);
+        }
+
+        synchronized double value() {
+            return value;
+        }
+    }
+}
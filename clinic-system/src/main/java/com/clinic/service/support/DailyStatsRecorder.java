@@ -0,0 +1,199 @@
+package com.clinic.service.support;
+
+import com.clinic.model.entity.Appointment;
+import com.clinic.model.entity.QueueEntry;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.repository.DailyClinicStatsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * DailyStatsRecorder — keeps daily_clinic_stats in step with appointment
+ * and queue changes.
+ *
+ * Callers report each change as it happens; the recorder sums the deltas per
+ * (clinic, date) for the current transaction and applies them in
+ * beforeCommit — still inside the transaction, so the rollup commits or
+ * rolls back with the change, but the hot per-clinic row is locked only for
+ * the last moment of the transaction. Rows are updated in (clinic, date)
+ * order so concurrent transactions cannot deadlock on them.
+ *
+ * A missing row is inserted in the same transaction with INSERT … ON CONFLICT
+ * DO NOTHING (a concurrent insert of the same row is harmless) and the
+ * increment retried — no second connection is ever needed.
+ * Outside a transaction the deltas are applied immediately in a new one.
+ */
+@Component
+public class DailyStatsRecorder {
+
+    private final DailyClinicStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /** ON CONFLICT is PostgreSQL syntax; H2 (tests, benchmarks) takes the MERGE form. */
+    private final boolean postgres;
+
+    public DailyStatsRecorder(DailyClinicStatsRepository statsRepository,
+                              EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // ─── Events ───────────────────────────────────────────────────────────────
+
+    public void appointmentCreated(Appointment appointment) {
+        record(deltas -> delta(deltas, appointment.getClinic().getId(), appointment.getAppointmentDate())
+                .add(appointment.getStatus(), 1));
+    }
+
+    public void appointmentStatusChanged(Appointment appointment, AppointmentStatus from) {
+        if (from == appointment.getStatus()) return;
+        record(deltas -> {
+            Delta delta = delta(deltas, appointment.getClinic().getId(), appointment.getAppointmentDate());
+            delta.add(from, -1);
+            delta.add(appointment.getStatus(), 1);
+        });
+    }
+
+    /** For bulk UPDATEs that move count appointments of one clinic and date between statuses. */
+    public void appointmentsStatusChanged(Long clinicId, LocalDate date,
+                                          AppointmentStatus from, AppointmentStatus to, long count) {
+        if (from == to || count == 0) return;
+        record(deltas -> {
+            Delta delta = delta(deltas, clinicId, date);
+            delta.add(from, -count);
+            delta.add(to, count);
+        });
+    }
+
+    public void appointmentMoved(Appointment appointment, LocalDate fromDate) {
+        if (fromDate.equals(appointment.getAppointmentDate())) return;
+        Long clinicId = appointment.getClinic().getId();
+        record(deltas -> {
+            delta(deltas, clinicId, fromDate).add(appointment.getStatus(), -1);
+            delta(deltas, clinicId, appointment.getAppointmentDate()).add(appointment.getStatus(), 1);
+        });
+    }
+
+    public void queueEntryAdded(QueueEntry entry) {
+        record(deltas -> {
+            Delta delta = delta(deltas, entry.getClinic().getId(), entry.getQueueDate());
+            if (entry.isWalkIn()) {
+                delta.walkIns++;
+            } else {
+                delta.checkIns++;
+            }
+        });
+    }
+
+    /** Call once per entry, when its consultStartTime is first set. */
+    public void consultStarted(QueueEntry entry) {
+        if (entry.getCheckInTime() == null || entry.getConsultStartTime() == null) return;
+        record(deltas -> {
+            Delta delta = delta(deltas, entry.getClinic().getId(), entry.getQueueDate());
+            delta.waited++;
+            delta.waitSeconds += Duration.between(entry.getCheckInTime(), entry.getConsultStartTime()).toSeconds();
+        });
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private void record(Consumer<Map<Key, Delta>> change) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            change.accept(pendingDeltas());
+        } else {
+            transactionTemplate.executeWithoutResult(tx -> change.accept(pendingDeltas()));
+        }
+    }
+
+    private static Delta delta(Map<Key, Delta> deltas, Long clinicId, LocalDate date) {
+        return deltas.computeIfAbsent(new Key(clinicId, date), k -> new Delta());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Delta> pendingDeltas() {
+        Map<Key, Delta> pending = (Map<Key, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Key, Delta> deltas = new TreeMap<>(Key.ORDER);
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    deltas.forEach(DailyStatsRecorder.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DailyStatsRecorder.this);
+                }
+            });
+            pending = deltas;
+        }
+        return pending;
+    }
+
+    private void apply(Key key, Delta d) {
+        if (d.isEmpty()) return;
+        if (increment(key, d) == 0) {
+            ensureRow(key);
+            increment(key, d);
+        }
+    }
+
+    private int increment(Key key, Delta d) {
+        return statsRepository.increment(key.clinicId(), key.date(),
+                d.pending, d.confirmed, d.checkedIn, d.completed, d.cancelled, d.noShow,
+                d.walkIns, d.checkIns, d.waited, d.waitSeconds);
+    }
+
+    private void ensureRow(Key key) {
+        if (postgres) {
+            statsRepository.insertIfAbsent(key.clinicId(), key.date());
+        } else {
+            statsRepository.mergeIfAbsent(key.clinicId(), key.date());
+        }
+    }
+
+    private record Key(Long clinicId, LocalDate date) {
+        static final Comparator<Key> ORDER =
+                Comparator.comparing(Key::clinicId).thenComparing(Key::date);
+    }
+
+    /** Counter changes for one (clinic, date) row. */
+    private static class Delta {
+        long pending, confirmed, checkedIn, completed, cancelled, noShow;
+        long walkIns, checkIns, waited, waitSeconds;
+
+        void add(AppointmentStatus status, long n) {
+            switch (status) {
+                case PENDING -> pending += n;
+                case CONFIRMED -> confirmed += n;
+                case CHECKED_IN -> checkedIn += n;
+                case COMPLETED -> completed += n;
+                case CANCELLED -> cancelled += n;
+                case NO_SHOW -> noShow += n;
+            }
+        }
+
+        boolean isEmpty() {
+            return pending == 0 && confirmed == 0 && checkedIn == 0 && completed == 0
+                    && cancelled == 0 && noShow == 0 && walkIns == 0 && checkIns == 0
+                    && waited == 0 && waitSeconds == 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.clinic.service.support;
+
+import com.clinic.model.entity.QueueEntry;
+import com.clinic.model.enums.QueueStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * LiveQueueEntry — immutable in-memory copy of a QueueEntry held by QueueEngine.
+ *
+ * Carries everything QueueMapper needs so that live queue reads never touch
+ * JPA entities. Transitions produce a new instance (withStatus) that replaces
+ * the old one in the engine.
+ */
+public record LiveQueueEntry(
+        Long id,
+        Long clinicId,
+        Long patientId,
+        Long patientUserId,
+        String patientName,
+        String patientPhone,
+        Long doctorId,
+        String doctorName,
+        LocalDate queueDate,
+        int queueNumber,
+        QueueStatus status,
+        LocalDateTime checkInTime,
+        LocalDateTime consultStartTime,
+        LocalDateTime consultEndTime,
+        boolean walkIn) {
+
+    /** Entity must have patient.user and doctor.user initialised. */
+    public static LiveQueueEntry from(QueueEntry q) {
+        return new LiveQueueEntry(
+                q.getId(),
+                q.getClinic().getId(),
+                q.getPatient().getId(),
+                q.getPatient().getUser().getId(),
+                q.getPatient().getUser().getFullName(),
+                q.getPatient().getUser().getPhone(),
+                q.getDoctor().getId(),
+                q.getDoctor().getUser().getFullName(),
+                q.getQueueDate(),
+                q.getQueueNumber(),
+                q.getStatus(),
+                q.getCheckInTime(),
+                q.getConsultStartTime(),
+                q.getConsultEndTime(),
+                q.isWalkIn());
+    }
+
+    public boolean isActive() {
+        return status == QueueStatus.WAITING || status == QueueStatus.IN_CONSULT;
+    }
+
+    /**
+     * Copy with a new status. IN_CONSULT stamps consultStartTime and
+     * DONE stamps consultEndTime; other timestamps are kept.
+     */
+    public LiveQueueEntry withStatus(QueueStatus newStatus, LocalDateTime at) {
+        return new LiveQueueEntry(id, clinicId, patientId, patientUserId, patientName, patientPhone,
+                doctorId, doctorName, queueDate, queueNumber, newStatus, checkInTime,
+                newStatus == QueueStatus.IN_CONSULT ? at : consultStartTime,
+                newStatus == QueueStatus.DONE ? at : consultEndTime,
+                walkIn);
+    }
+}
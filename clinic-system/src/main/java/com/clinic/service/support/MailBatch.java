@@ -0,0 +1,59 @@
+package com.clinic.service.support;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.*;
+
+/**
+ * MailBatch — sends several emails with one JavaMailSender.send(...) call
+ * (one SMTP connection) and reports which of them failed.
+ *
+ * MailSendException reports failures in a map keyed by
+ * SimpleMailMessage.equals, which compares content: two equal messages in
+ * one call would share an entry, and a delivered one could be taken for
+ * failed (and sent again) or a failed one for delivered. So equal messages
+ * go out in separate calls — in practice the batch is one call — and the
+ * failures returned here are keyed by message identity.
+ */
+public final class MailBatch {
+
+    private MailBatch() {
+    }
+
+    /** @return failed messages (by identity) mapped to their error — empty if all were accepted */
+    public static Map<SimpleMailMessage, Exception> send(JavaMailSender mailSender, SimpleMailMessage[] messages) {
+        Map<SimpleMailMessage, Exception> failures = new IdentityHashMap<>();
+        List<SimpleMailMessage> remaining = Arrays.asList(messages);
+        while (!remaining.isEmpty()) {
+            Set<SimpleMailMessage> distinct = new LinkedHashSet<>();
+            List<SimpleMailMessage> repeated = new ArrayList<>();
+            for (SimpleMailMessage m : remaining) {
+                if (!distinct.add(m)) repeated.add(m);
+            }
+            sendDistinct(mailSender, distinct.toArray(SimpleMailMessage[]::new), failures);
+            remaining = repeated;
+        }
+        return failures;
+    }
+
+    /** No two of these messages are equal, so each failure key is one of them. */
+    private static void sendDistinct(JavaMailSender mailSender, SimpleMailMessage[] messages,
+                                     Map<SimpleMailMessage, Exception> failures) {
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (SimpleMailMessage m : messages) {
+                // no per-message detail: nothing in the batch is known to have gone out
+                Exception failure = failed.isEmpty() ? e : failed.get(m);
+                if (failure != null) failures.put(m, failure);
+            }
+        } catch (MailException e) {
+            // connect / authentication failure: nothing in the batch went out
+            for (SimpleMailMessage m : messages) failures.put(m, e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.clinic.service.support;
+
+import com.clinic.model.entity.Notification;
+import com.clinic.model.entity.OutboxMessage;
+import com.clinic.model.entity.User;
+import com.clinic.repository.NotificationRepository;
+import com.clinic.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NotificationOutbox — transactional outbox for appointment emails.
+ *
+ * enqueue() inserts an OutboxMessage in the caller's transaction; booking,
+ * reschedule and cancel therefore cost one INSERT and never touch SMTP.
+ * Once that transaction commits a drain is kicked off on the
+ * notificationExecutor, so the email goes out within moments;
+ * NotificationOutboxScheduler polls as a backstop (retries, shed kicks).
+ * drain() works in batches of clinic.notification.batch-size:
+ *  1. read the oldest due messages (short read-only transaction)
+ *  2. send them with one JavaMailSender.send(...) call (MailBatch) — one
+ *     SMTP connection for the whole batch, no transaction held; failures
+ *     are matched to messages by identity, not equals
+ *  3. in one transaction: audit every attempt in the notifications table
+ *     (sequence ids, so Hibernate sends the inserts as one JDBC batch),
+ *     delete finished messages in one statement and push failed ones
+ *     back for a retry
+ *
+ * Only one drain runs at a time; a kick arriving meanwhile is dropped and
+ * its message picked up by the running drain or the next poll.
+ * Delivery is at-least-once: a crash between 2 and 3 resends the batch.
+ * Assumes one application node dispatches (like QueueEngine).
+ */
+@Component
+@Slf4j
+public class NotificationOutbox {
+
+    private final OutboxMessageRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final TaskExecutor notificationExecutor;
+    private final MeterRegistry registry;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Value("${clinic.notification.batch-size:50}")
+    private int batchSize;
+
+    @Value("${clinic.notification.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${clinic.notification.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    public NotificationOutbox(OutboxMessageRepository outboxRepository,
+                              NotificationRepository notificationRepository,
+                              JavaMailSender mailSender,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("notificationExecutor") TaskExecutor notificationExecutor,
+                              MeterRegistry registry) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.notificationExecutor = notificationExecutor;
+        this.registry = registry;
+    }
+
+    // ─── Enqueue ──────────────────────────────────────────────────────────────
+
+    /** Queues an email in the current transaction; it is sent only if that transaction commits. */
+    public void enqueue(User user, String type, String subject, String body) {
+        outboxRepository.save(OutboxMessage.builder()
+                .user(user)
+                .recipient(user.getEmail())
+                .type(type)
+                .subject(subject)
+                .body(body)
+                .availableAt(LocalDateTime.now())
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notificationExecutor.execute(NotificationOutbox.this::drain);
+                }
+            });
+        }
+    }
+
+    // ─── Dispatch ─────────────────────────────────────────────────────────────
+
+    /**
+     * Sends due messages batch by batch until fewer than a full batch is left.
+     *
+     * @return number of messages attempted — 0 if another drain is running
+     */
+    public int drain() {
+        if (!draining.compareAndSet(false, true)) return 0;
+        try {
+            int attempted = 0;
+            int sent;
+            do {
+                sent = dispatchBatch();
+                attempted += sent;
+            } while (sent == batchSize);
+            return attempted;
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private int dispatchBatch() {
+        List<OutboxMessage> batch = readOnlyTx.execute(tx ->
+                outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize)));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        SimpleMailMessage[] messages = batch.stream().map(NotificationOutbox::toMail)
+                .toArray(SimpleMailMessage[]::new);
+        Timer.Sample sample = Timer.start(registry);
+        Map<SimpleMailMessage, Exception> failures = MailBatch.send(mailSender, messages);
+        sample.stop(sendTimer(failures.isEmpty() ? "success" : "failure"));
+        LocalDateTime sentAt = LocalDateTime.now();
+
+        List<Notification> audit = new ArrayList<>(batch.size());
+        List<Long> finished = new ArrayList<>(batch.size());
+        List<OutboxMessage> retry = new ArrayList<>();
+        int failed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage m = batch.get(i);
+            Exception failure = failures.get(messages[i]);
+            String error = failure == null ? null : truncate(String.valueOf(failure.getMessage()));
+            audit.add(auditRow(m, failure == null, error, sentAt));
+            if (failure == null || m.getAttempts() + 1 >= maxAttempts) {
+                finished.add(m.getId());
+            } else {
+                m.setLastError(error);
+                retry.add(m);
+            }
+            if (failure != null) {
+                failed++;
+                log.error("Failed to send email [{}] to {} (attempt {}): {}",
+                        m.getType(), m.getRecipient(), m.getAttempts() + 1, error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            notificationRepository.saveAll(audit);
+            if (!finished.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(finished);
+            }
+            for (OutboxMessage m : retry) {
+                LocalDateTime retryAt = sentAt.plusSeconds(retryDelaySeconds * (m.getAttempts() + 1));
+                outboxRepository.recordFailure(m.getId(), m.getLastError(), retryAt, sentAt);
+            }
+        });
+        log.info("Outbox batch: {} emails sent, {} failed", batch.size() - failed, failed);
+        return batch.size();
+    }
+
+    /** Same tags as the direct path; a batch spans clinics, hence clinic=all. */
+    private Timer sendTimer(String outcome) {
+        return Timer.builder("clinic.notification.send")
+                .tags("path", "outbox", "clinic", "all", "outcome", outcome)
+                .description("Time to hand one outbox batch to the mail server")
+                .register(registry);
+    }
+
+    private static SimpleMailMessage toMail(OutboxMessage m) {
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setTo(m.getRecipient());
+        msg.setSubject(m.getSubject());
+        msg.setText(m.getBody());
+        return msg;
+    }
+
+    private static Notification auditRow(OutboxMessage m, boolean success, String error, LocalDateTime sentAt) {
+        return Notification.builder()
+                .user(m.getUser()).channel("EMAIL").type(m.getType())
+                .subject(m.getSubject()).body(m.getBody()).sentAt(sentAt)
+                .success(success).errorMessage(error)
+                .build();
+    }
+
+    /** Fits the notifications.error_message / outbox last_error column */
+    private static String truncate(String error) {
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
@@ -0,0 +1,116 @@
+package com.clinic.service.support;
+
+import com.clinic.dto.response.QueueBoardSnapshot;
+import com.clinic.dto.response.QueueBoardSnapshot.DoctorRow;
+import com.clinic.model.entity.Doctor;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.repository.DoctorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueueBoard — one immutable QueueBoardSnapshot per clinic: every available
+ * doctor's current number, next number and waiting count.
+ *
+ * A QueueChangedEvent (after commit, or immediately for the in-memory
+ * transitions) bumps the clinic's version; the next read rebuilds the
+ * snapshot once from QueueEngine and every other viewer gets the same
+ * instance. With nothing changed a read is two map lookups, and the ETag
+ * lets pollers get a 304 without the snapshot being serialised.
+ *
+ * Rebuilds are serialised per clinic. A change arriving mid-build bumps
+ * the version again, so the next read rebuilds. Roster changes (a doctor
+ * added or made unavailable) appear with the next queue change or the
+ * next day.
+ */
+@Component
+@Slf4j
+public class QueueBoard {
+
+    /** Distinguishes ETags across restarts, when build numbers start over. */
+    private static final String BOOT = Long.toString(System.currentTimeMillis(), 36);
+
+    private final QueueEngine queueEngine;
+    private final DoctorRepository doctorRepository;
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Built> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong builds = new AtomicLong();
+
+    public QueueBoard(QueueEngine queueEngine, DoctorRepository doctorRepository) {
+        this.queueEngine = queueEngine;
+        this.doctorRepository = doctorRepository;
+    }
+
+    /** The clinic's current board, rebuilt first if a queue changed since the last build. */
+    public QueueBoardSnapshot snapshot(Long clinicId) {
+        AtomicLong version = version(clinicId);
+        Built current = snapshots.get(clinicId);
+        if (isFresh(current, version)) return current.snapshot();
+
+        synchronized (version) {
+            current = snapshots.get(clinicId);
+            if (isFresh(current, version)) return current.snapshot();
+
+            long building = version.get();
+            Built rebuilt = new Built(build(clinicId), building);
+            snapshots.put(clinicId, rebuilt);
+            return rebuilt.snapshot();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueChanged(QueueChangedEvent event) {
+        version(event.clinicId()).incrementAndGet();
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private AtomicLong version(Long clinicId) {
+        return versions.computeIfAbsent(clinicId, id -> new AtomicLong());
+    }
+
+    private static boolean isFresh(Built built, AtomicLong version) {
+        return built != null
+                && built.version() == version.get()
+                && built.snapshot().date().equals(LocalDate.now());
+    }
+
+    private QueueBoardSnapshot build(Long clinicId) {
+        List<DoctorRow> rows = new ArrayList<>();
+        for (Doctor doctor : doctorRepository.findAvailableWithUserByClinicId(clinicId)) {
+            rows.add(row(doctor, queueEngine.doctorQueue(doctor.getId())));
+        }
+        String etag = "\"" + BOOT + "-" + builds.incrementAndGet() + "\"";
+        log.debug("Queue board for clinic {} rebuilt: {} doctors, etag {}", clinicId, rows.size(), etag);
+        return new QueueBoardSnapshot(clinicId, LocalDate.now(), LocalDateTime.now(), rows, etag);
+    }
+
+    private static DoctorRow row(Doctor doctor, List<LiveQueueEntry> queue) {
+        Integer current = null;
+        Integer next = null;
+        int waiting = 0;
+        for (LiveQueueEntry e : queue) {
+            if (e.status() == QueueStatus.IN_CONSULT) {
+                current = e.queueNumber();
+            } else if (e.status() == QueueStatus.WAITING) {
+                if (next == null) next = e.queueNumber();
+                waiting++;
+            }
+        }
+        return new DoctorRow(doctor.getId(), doctor.getUser().getFullName(), doctor.getSpecialization(),
+                doctor.getConsultationRoom(), current, next, waiting);
+    }
+
+    private record Built(QueueBoardSnapshot snapshot, long version) {
+    }
+}
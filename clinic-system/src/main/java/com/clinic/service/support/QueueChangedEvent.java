@@ -0,0 +1,8 @@
+package com.clinic.service.support;
+
+/**
+ * Published by QueueServiceImpl whenever a doctor's queue for today changes
+ * (check-in, walk-in, call next, skip, complete).
+ */
+public record QueueChangedEvent(Long clinicId, Long doctorId) {
+}
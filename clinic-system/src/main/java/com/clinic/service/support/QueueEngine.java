@@ -0,0 +1,352 @@
+package com.clinic.service.support;
+
+import com.clinic.exception.ResourceNotFoundException;
+import com.clinic.model.entity.QueueEntry;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.repository.QueueEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * QueueEngine — today's live queues held in memory, persisted write-behind.
+ *
+ * Structure:
+ *   doctorId → ConcurrentSkipListMap<queueNumber, LiveQueueEntry>
+ * plus indexes by entry id and by the patient's user id (active entries only).
+ *
+ * Reads (doctor queue, patient position) and transitions (call next, skip,
+ * complete) are served from memory. Transitions are recorded in a dirty map
+ * keyed by entry id — repeated changes to one entry coalesce — and
+ * QueueWriteBehindScheduler flushes them to QueueEntryRepository in batches,
+ * updating daily_clinic_stats in the same transaction.
+ *
+ * The database stays the source of truth:
+ *  - Once all singletons exist — before the web server or the schedulers
+ *    start, so no request can have loaded or changed a queue yet — the
+ *    engine rebuilds today's queues from the DB.
+ *  - A doctor not seen yet today is loaded from the DB on first access.
+ *  - New entries (check-in / walk-in) are inserted synchronously by
+ *    QueueServiceImpl and registered here after their transaction commits.
+ *  - At midnight the in-memory day is dropped and rebuilt lazily.
+ *
+ * Closing a consultation (IN_CONSULT → DONE) feeds ConsultDurationEstimator.
+ *
+ * Each doctor with a live entry gets a clinic.queue.length gauge (tags clinic,
+ * doctor) reporting the WAITING entries in memory; it reads 0 once the day
+ * rolls over until the doctor's queue is loaded again.
+ *
+ * Only today's queues live here; other dates are read from the DB directly.
+ * Assumes one application node owns a clinic's queues.
+ */
+@Component
+@Slf4j
+public class QueueEngine implements SmartInitializingSingleton {
+
+    private final QueueEntryRepository queueEntryRepository;
+    private final DailyStatsRecorder dailyStats;
+    private final ConsultDurationEstimator consultDurations;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+
+    private volatile LocalDate day = LocalDate.now();
+    private final Map<Long, ConcurrentSkipListMap<Integer, LiveQueueEntry>> queues = new ConcurrentHashMap<>();
+    private final Map<Long, LiveQueueEntry> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Long> activeEntryByPatientUser = new ConcurrentHashMap<>();
+
+    /** Latest unpersisted state per entry id. */
+    private final Map<Long, LiveQueueEntry> dirty = new ConcurrentHashMap<>();
+
+    /** Doctors with a registered clinic.queue.length gauge. */
+    private final Set<Long> gaugedDoctors = ConcurrentHashMap.newKeySet();
+
+    public QueueEngine(QueueEntryRepository queueEntryRepository,
+                       DailyStatsRecorder dailyStats,
+                       ConsultDurationEstimator consultDurations,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry registry) {
+        this.queueEntryRepository = queueEntryRepository;
+        this.dailyStats = dailyStats;
+        this.consultDurations = consultDurations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registry = registry;
+    }
+
+    // ─── Lifecycle ────────────────────────────────────────────────────────────
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the in-memory day with the DB's view of today. Discards live
+     * state, so only call it while no requests are being served.
+     */
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        Map<Long, List<QueueEntry>> byDoctor = queueEntryRepository.findWithParticipantsByQueueDate(today)
+                .stream().collect(Collectors.groupingBy(q -> q.getDoctor().getId()));
+        synchronized (this) {
+            resetTo(today);
+            byDoctor.forEach((doctorId, entries) -> publish(doctorId, order(entries)));
+        }
+        log.info("QueueEngine rebuilt for {}: {} doctors, {} entries",
+                today, byDoctor.size(), byId.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ─── Reads ────────────────────────────────────────────────────────────────
+
+    /** True if the engine holds the live queue for this date (i.e. it is today). */
+    public boolean covers(LocalDate date) {
+        return date.equals(currentDay());
+    }
+
+    /** Today's queue for a doctor, ordered by queue number. */
+    public List<LiveQueueEntry> doctorQueue(Long doctorId) {
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queueFor(doctorId);
+        synchronized (queue) {
+            return new ArrayList<>(queue.values());
+        }
+    }
+
+    public Optional<LiveQueueEntry> findActiveByPatientUser(Long patientUserId) {
+        currentDay();
+        Long entryId = activeEntryByPatientUser.get(patientUserId);
+        return entryId == null ? Optional.empty() : Optional.ofNullable(byId.get(entryId));
+    }
+
+    /** WAITING entries in the doctor's in-memory queue; never loads from the DB. */
+    public int waitingCount(Long doctorId) {
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queues.get(doctorId);
+        if (queue == null) return 0;
+        int waiting = 0;
+        for (LiveQueueEntry e : queue.values()) {
+            if (e.status() == QueueStatus.WAITING) waiting++;
+        }
+        return waiting;
+    }
+
+    /** QR-003 input: WAITING entries with a lower queue number. */
+    public int patientsAhead(LiveQueueEntry entry) {
+        int ahead = 0;
+        for (LiveQueueEntry e : queueFor(entry.doctorId()).headMap(entry.queueNumber()).values()) {
+            if (e.status() == QueueStatus.WAITING) ahead++;
+        }
+        return ahead;
+    }
+
+    // ─── Writes ───────────────────────────────────────────────────────────────
+
+    /** Adds a newly inserted entry once the inserting transaction commits. */
+    public void register(QueueEntry saved) {
+        LiveQueueEntry entry = LiveQueueEntry.from(saved);
+        Runnable add = () -> {
+            if (!covers(entry.queueDate())) return;
+            ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queueFor(entry.doctorId());
+            synchronized (queue) {
+                put(queue, entry);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add.run();
+                }
+            });
+        } else {
+            add.run();
+        }
+    }
+
+    /**
+     * Marks the doctor's IN_CONSULT entry DONE and moves the first WAITING
+     * entry to IN_CONSULT. Nothing changes if no one is waiting.
+     *
+     * @return the entry now in consultation
+     */
+    public LiveQueueEntry callNext(Long doctorId, LocalDateTime now) {
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queueFor(doctorId);
+        synchronized (queue) {
+            LiveQueueEntry next = queue.values().stream()
+                    .filter(e -> e.status() == QueueStatus.WAITING)
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("No waiting patients", doctorId));
+
+            queue.values().stream()
+                    .filter(e -> e.status() == QueueStatus.IN_CONSULT)
+                    .findFirst()
+                    .ifPresent(current -> update(queue, current.withStatus(QueueStatus.DONE, now)));
+
+            return update(queue, next.withStatus(QueueStatus.IN_CONSULT, now));
+        }
+    }
+
+    /**
+     * Moves a live entry to a new status.
+     *
+     * @return the updated entry, or empty if the entry is not in today's queues
+     */
+    public Optional<LiveQueueEntry> transition(Long entryId, QueueStatus status, LocalDateTime now) {
+        currentDay();
+        LiveQueueEntry entry = byId.get(entryId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queueFor(entry.doctorId());
+        synchronized (queue) {
+            LiveQueueEntry latest = byId.get(entryId);
+            return Optional.of(update(queue, latest.withStatus(status, now)));
+        }
+    }
+
+    // ─── Write-behind ─────────────────────────────────────────────────────────
+
+    /**
+     * Persists pending transitions in one transaction. On failure the batch
+     * is put back (unless superseded by a newer change) and retried next run.
+     *
+     * @return number of entries written
+     */
+    public int flush() {
+        if (dirty.isEmpty()) return 0;
+
+        Map<Long, LiveQueueEntry> batch = new HashMap<>(dirty);
+        batch.forEach(dirty::remove);   // remove(k, v): keeps entries changed meanwhile
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<QueueEntry> entities = queueEntryRepository.findAllById(batch.keySet());
+                for (QueueEntry q : entities) {
+                    LiveQueueEntry live = batch.get(q.getId());
+                    boolean consultStarted = q.getConsultStartTime() == null && live.consultStartTime() != null;
+                    q.setStatus(live.status());
+                    q.setConsultStartTime(live.consultStartTime());
+                    q.setConsultEndTime(live.consultEndTime());
+                    if (consultStarted) {
+                        dailyStats.consultStarted(q);
+                    }
+                }
+                queueEntryRepository.saveAll(entities);
+            });
+            log.debug("QueueEngine flushed {} entries", batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            batch.forEach(dirty::putIfAbsent);
+            log.error("QueueEngine flush of {} entries failed, will retry: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private LocalDate currentDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day)) {
+            synchronized (this) {
+                if (!today.equals(day)) {
+                    resetTo(today);
+                }
+            }
+        }
+        return today;
+    }
+
+    private void resetTo(LocalDate today) {
+        queues.clear();
+        byId.clear();
+        activeEntryByPatientUser.clear();
+        day = today;
+    }
+
+    /**
+     * The doctor's queue, loaded from the DB on first access. The query runs
+     * outside the map so a slow load never blocks other doctors' lookups;
+     * if two threads load the same doctor, the first to publish wins.
+     */
+    private ConcurrentSkipListMap<Integer, LiveQueueEntry> queueFor(Long doctorId) {
+        LocalDate today = currentDay();
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = queues.get(doctorId);
+        if (queue != null) return queue;
+        return publish(doctorId,
+                order(queueEntryRepository.findByDoctorIdAndQueueDateOrderByQueueNumberAsc(doctorId, today)));
+    }
+
+    /** Builds an unpublished queue; the id and patient indexes are filled by publish(). */
+    private static ConcurrentSkipListMap<Integer, LiveQueueEntry> order(List<QueueEntry> entries) {
+        ConcurrentSkipListMap<Integer, LiveQueueEntry> queue = new ConcurrentSkipListMap<>();
+        entries.stream().map(LiveQueueEntry::from).forEach(e -> queue.put(e.queueNumber(), e));
+        return queue;
+    }
+
+    /**
+     * Installs a loaded queue unless another thread got there first, and
+     * indexes its entries. The queue's monitor is held from publication until
+     * the indexes are filled, so no writer can change an entry in between.
+     *
+     * @return the queue now mapped to the doctor
+     */
+    private ConcurrentSkipListMap<Integer, LiveQueueEntry> publish(Long doctorId,
+                                                                    ConcurrentSkipListMap<Integer, LiveQueueEntry> loaded) {
+        synchronized (loaded) {
+            ConcurrentSkipListMap<Integer, LiveQueueEntry> existing = queues.putIfAbsent(doctorId, loaded);
+            if (existing != null) return existing;
+            loaded.values().forEach(e -> put(loaded, e));
+            return loaded;
+        }
+    }
+
+    /** Caller holds the queue's monitor (or owns an unpublished queue). */
+    private void put(ConcurrentSkipListMap<Integer, LiveQueueEntry> queue, LiveQueueEntry entry) {
+        if (gaugedDoctors.add(entry.doctorId())) {
+            registerLengthGauge(entry);
+        }
+        queue.put(entry.queueNumber(), entry);
+        byId.put(entry.id(), entry);
+        if (entry.isActive()) {
+            activeEntryByPatientUser.put(entry.patientUserId(), entry.id());
+        } else {
+            activeEntryByPatientUser.remove(entry.patientUserId(), entry.id());
+        }
+    }
+
+    /** The gauge keeps a weak reference to the engine, like other Micrometer gauges. */
+    private void registerLengthGauge(LiveQueueEntry entry) {
+        Long doctorId = entry.doctorId();
+        Gauge.builder("clinic.queue.length", this, engine -> engine.waitingCount(doctorId))
+                .tags("clinic", ClinicMetrics.clinic(entry.clinicId()), "doctor", doctorId.toString())
+                .description("Patients waiting in a doctor's live queue")
+                .register(registry);
+    }
+
+    /** Caller holds the queue's monitor. A consultation closed here feeds ConsultDurationEstimator. */
+    private LiveQueueEntry update(ConcurrentSkipListMap<Integer, LiveQueueEntry> queue, LiveQueueEntry entry) {
+        LiveQueueEntry previous = byId.get(entry.id());
+        put(queue, entry);
+        if (entry.status() == QueueStatus.DONE && previous != null && previous.status() == QueueStatus.IN_CONSULT) {
+            consultDurations.record(entry.doctorId(), entry.consultStartTime(), entry.consultEndTime());
+        }
+        dirty.put(entry.id(), entry);
+        return entry;
+    }
+}
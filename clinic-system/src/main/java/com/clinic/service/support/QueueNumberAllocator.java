@@ -0,0 +1,55 @@
+package com.clinic.service.support;
+
+import com.clinic.model.entity.Doctor;
+import com.clinic.repository.QueueEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QueueNumberAllocator — hands out QR-002 queue numbers per (doctor, queueDate).
+ *
+ * One AtomicInteger per doctor/day, seeded from the database the first time
+ * that queue is touched (MAX(queueNumber) runs once, not on every check-in).
+ * After that each check-in or walk-in is a single incrementAndGet, so two
+ * receptionists checking patients in at the same moment always get
+ * different numbers.
+ *
+ * A number taken by a transaction that later rolls back is simply skipped —
+ * QR-002 only requires numbers to be sequential and never reused.
+ * The uk_queue_doctor_date_number constraint on QueueEntry is the backstop
+ * if several application nodes serve the same clinic.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueueNumberAllocator {
+
+    private final QueueEntryRepository queueEntryRepository;
+
+    private final Map<QueueKey, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    public int next(Doctor doctor, LocalDate date) {
+        QueueKey key = new QueueKey(doctor.getId(), date);
+        AtomicInteger counter = counters.get(key);
+        if (counter == null) {
+            // Seeded outside the map so the query never blocks other keys' lookups;
+            // if two threads seed the same key, both use the first one installed.
+            AtomicInteger seeded = new AtomicInteger(queueEntryRepository.nextQueueNumber(doctor, date) - 1);
+            counter = counters.putIfAbsent(key, seeded);
+            if (counter == null) counter = seeded;
+        }
+        return counter.incrementAndGet();
+    }
+
+    /** Drops counters for days strictly before the given date. */
+    public void evictBefore(LocalDate date) {
+        counters.keySet().removeIf(k -> k.date().isBefore(date));
+    }
+
+    private record QueueKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.clinic.service.support;
+
+import com.clinic.dto.response.QueueEntryResponse;
+import com.clinic.dto.response.QueueStatusUpdate;
+import com.clinic.service.QueueService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * QueueStatusStream — Server-Sent Events for the patient queue page.
+ *
+ * Subscriptions are grouped by doctor, then by queue entry (one entry may have
+ * several open tabs). An idle subscription is an SseEmitter on an async
+ * request: it holds no servlet thread, only a socket and a few objects.
+ *
+ * On QueueChangedEvent (after commit, or immediately for the in-memory
+ * transitions that run without a transaction) the doctor's queue is read once
+ * from QueueEngine and each subscriber is sent a QueueStatusUpdate only if it
+ * differs from the last one it received. The read runs on a single fan-out
+ * thread, and bursts of events for the same doctor collapse into one pass.
+ *
+ * Servlet writes block, so the fan-out thread never writes itself: each
+ * emitter is handed to a bounded writer pool (clinic.queue.sse-writers
+ * threads, clinic.queue.sse-write-queue tasks). An emitter has at most one
+ * write in flight; updates arriving meanwhile replace its pending one, so a
+ * slow client gets the latest state, not a backlog. A client is dropped —
+ * its EventSource reconnects and is sent the current state — when its write
+ * has been stuck longer than clinic.queue.sse-write-timeout-ms, or when the
+ * writer queue is full. A stuck write keeps its writer thread until the
+ * container's socket timeout fails it; the other writers carry on.
+ *
+ * When an entry leaves the queue (DONE / SKIPPED) its final update is sent
+ * and its emitters are completed. Emitters time out after
+ * clinic.queue.sse-timeout-ms; the browser's EventSource reconnects and is
+ * sent the current state on subscribe.
+ */
+@Component
+@Slf4j
+public class QueueStatusStream {
+
+    static final String EVENT_NAME = "queue";
+
+    private final QueueService queueService;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+
+    private final Map<Long, Map<Long, Subscription>> byDoctor = new ConcurrentHashMap<>();
+    private final Set<Long> pendingDoctors = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "queue-sse");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ThreadPoolExecutor writers;
+
+    public QueueStatusStream(QueueService queueService,
+                             @Value("${clinic.queue.sse-timeout-ms:1800000}") long timeoutMs,
+                             @Value("${clinic.queue.sse-writers:4}") int writerThreads,
+                             @Value("${clinic.queue.sse-write-queue:1000}") int writeQueue,
+                             @Value("${clinic.queue.sse-write-timeout-ms:10000}") long writeTimeoutMs) {
+        this.queueService = queueService;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writeQueue), r -> {
+                    Thread t = new Thread(r, "queue-sse-write-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Opens a stream for the given entry and sends its current state.
+     * Entries that are no longer active get their state and a closed stream.
+     */
+    public SseEmitter subscribe(QueueEntryResponse entry) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        QueueStatusUpdate current = QueueStatusUpdate.of(entry);
+        if (!current.isActive()) {
+            send(emitter, current);
+            emitter.complete();
+            return emitter;
+        }
+
+        Client client = new Client(entry.getDoctorId(), entry.getId(), emitter);
+        // Added inside compute, like unsubscribe removes inside computeIfPresent, so a
+        // concurrent unsubscribe cannot drop the subscription between lookup and add.
+        byDoctor.compute(entry.getDoctorId(), (id, subscribers) -> {
+            Map<Long, Subscription> subs = subscribers != null ? subscribers : new ConcurrentHashMap<>();
+            subs.compute(entry.getId(), (eid, s) -> {
+                Subscription subscription = s != null ? s : new Subscription();
+                subscription.clients.add(client);
+                subscription.lastSent = current;
+                return subscription;
+            });
+            return subs;
+        });
+        Runnable remove = () -> unsubscribe(client);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        deliver(client, current);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueChanged(QueueChangedEvent event) {
+        Long doctorId = event.doctorId();
+        if (byDoctor.containsKey(doctorId) && pendingDoctors.add(doctorId)) {
+            sender.execute(() -> {
+                pendingDoctors.remove(doctorId);
+                publish(doctorId);
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        writers.shutdownNow();
+        byDoctor.values().forEach(subs -> subs.values()
+                .forEach(s -> s.clients.forEach(c -> c.emitter.complete())));
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private void publish(Long doctorId) {
+        Map<Long, Subscription> subscribers = byDoctor.get(doctorId);
+        if (subscribers == null || subscribers.isEmpty()) return;
+
+        List<QueueEntryResponse> queue;
+        try {
+            queue = queueService.getDoctorQueue(doctorId, LocalDate.now());
+        } catch (RuntimeException e) {
+            log.warn("Queue stream: could not read queue for doctor {}: {}", doctorId, e.getMessage());
+            return;
+        }
+
+        for (QueueEntryResponse entry : queue) {
+            Subscription subscription = subscribers.get(entry.getId());
+            if (subscription == null) continue;
+
+            QueueStatusUpdate update = QueueStatusUpdate.of(entry);
+            if (update.equals(subscription.lastSent)) continue;
+            subscription.lastSent = update;
+
+            for (Client client : subscription.clients) {
+                deliver(client, update);
+            }
+        }
+    }
+
+    /** Queues the update for the client's writer; never blocks on the client's socket. */
+    private void deliver(Client client, QueueStatusUpdate update) {
+        client.pending.set(update);
+        if (client.writing.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(client));
+            } catch (RejectedExecutionException e) {
+                client.writing.set(false);
+                log.debug("Queue stream: writer queue full, dropping client of entry {}", client.entryId);
+                unsubscribe(client);
+                client.emitter.complete();
+            }
+        } else if (client.isStuck(writeTimeoutNanos)) {
+            // The write in flight holds the emitter; leave it to the container's socket timeout.
+            log.debug("Queue stream: write to entry {} stalled, dropping client", client.entryId);
+            unsubscribe(client);
+        }
+    }
+
+    /** Runs on a writer thread: sends the client's latest pending update until none is left. */
+    private void drain(Client client) {
+        while (true) {
+            QueueStatusUpdate update = client.pending.getAndSet(null);
+            if (update == null) {
+                client.writing.set(false);
+                // An update queued after getAndSet but before the flag cleared would be stranded.
+                if (client.pending.get() == null || !client.writing.compareAndSet(false, true)) return;
+                continue;
+            }
+            client.writeStartedNanos = System.nanoTime();
+            send(client.emitter, update);
+            client.writeStartedNanos = 0;
+            if (!update.isActive()) client.emitter.complete();
+        }
+    }
+
+    private void send(SseEmitter emitter, QueueStatusUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(update));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter's completion callback cleans up.
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(Client client) {
+        byDoctor.computeIfPresent(client.doctorId, (id, subscribers) -> {
+            subscribers.computeIfPresent(client.entryId, (eid, s) -> {
+                s.clients.remove(client);
+                return s.clients.isEmpty() ? null : s;
+            });
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static final class Subscription {
+        final List<Client> clients = new CopyOnWriteArrayList<>();
+        volatile QueueStatusUpdate lastSent;
+    }
+
+    /** One open stream: its emitter plus the single-writer state. */
+    private static final class Client {
+        final Long doctorId;
+        final Long entryId;
+        final SseEmitter emitter;
+        final AtomicReference<QueueStatusUpdate> pending = new AtomicReference<>();
+        final AtomicBoolean writing = new AtomicBoolean();
+        volatile long writeStartedNanos;
+
+        Client(Long doctorId, Long entryId, SseEmitter emitter) {
+            this.doctorId = doctorId;
+            this.entryId = entryId;
+            this.emitter = emitter;
+        }
+
+        boolean isStuck(long timeoutNanos) {
+            long started = writeStartedNanos;
+            return started != 0 && System.nanoTime() - started > timeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.clinic.service.support;
+
+import com.clinic.dto.response.AvailableSlotResponse;
+import com.clinic.model.entity.Doctor;
+import com.clinic.model.entity.DoctorSchedule;
+import com.clinic.repository.AppointmentRepository;
+import com.clinic.repository.DoctorScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SlotAvailabilityIndex — in-memory bitmap of booked slots per doctor per day.
+ *
+ * getAvailableSlots backs every load of book-appointment.html, so instead of
+ * re-reading DoctorSchedule rows and the day's appointments on each request
+ * we keep one compact BitSet per (doctor, date):
+ *   bit i set → slot i is held by a PENDING / CONFIRMED / CHECKED_IN appointment.
+ *
+ * The slot grid is derived from the doctor's active DoctorSchedule blocks for
+ * that weekday and clinic.appointment.slot-duration-minutes.
+ *
+ * Lifecycle:
+ *  - Built lazily from the database on the first read of a (doctor, date).
+ *  - Booking, rescheduling, cancelling, completing and no-show marking flip
+ *    single bits. Mutations are applied after the surrounding transaction
+ *    commits, so a rolled-back booking never leaves a phantom bit behind.
+ *  - Past days are dropped by the nightly no-show run (evictBefore).
+ *
+ * The grid itself is never invalidated: nothing edits DoctorSchedule at
+ * runtime. DataSeeder only adds schedules for doctors it has just created,
+ * so none of their days is cached yet. Code that edits a schedule must also
+ * drop that doctor's cached days.
+ *
+ * The database stays the source of truth: this is a read cache only and
+ * BR-001 conflict checks still go through AppointmentRepository.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotAvailabilityIndex {
+
+    private final DoctorScheduleRepository scheduleRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${clinic.appointment.slot-duration-minutes:30}")
+    private int slotDurationMinutes;
+
+    private final Map<SlotKey, DaySlots> days = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped whenever a mutation targets a day that is not cached yet.
+     * A concurrent cold load that straddles such a mutation discards its
+     * result instead of caching a stale bitmap.
+     */
+    private final AtomicLong missedMutations = new AtomicLong();
+
+    // ─── Reads ────────────────────────────────────────────────────────────────
+
+    /**
+     * Returns the slot grid for a doctor on a date. The doctor is only
+     * resolved (and the database only touched) when the day is not cached.
+     */
+    public List<AvailableSlotResponse> getSlots(Long doctorId, LocalDate date,
+                                                Supplier<Doctor> doctorLoader) {
+        SlotKey key = new SlotKey(doctorId, date);
+        DaySlots cached = days.get(key);
+        if (cached != null) {
+            return cached.toResponses();
+        }
+
+        long generation = missedMutations.get();
+        DaySlots loaded = load(doctorLoader.get(), date);
+        if (generation == missedMutations.get()) {
+            DaySlots existing = days.putIfAbsent(key, loaded);
+            return (existing != null ? existing : loaded).toResponses();
+        }
+        return loaded.toResponses();
+    }
+
+    // ─── Incremental updates ─────────────────────────────────────────────────
+
+    /** Marks a slot as taken once the current transaction commits. */
+    public void markBooked(Long doctorId, LocalDate date, LocalTime time) {
+        afterCommit(() -> apply(doctorId, date, time, true));
+    }
+
+    /** Frees a slot once the current transaction commits. */
+    public void release(Long doctorId, LocalDate date, LocalTime time) {
+        afterCommit(() -> apply(doctorId, date, time, false));
+    }
+
+    /** Drops cached days strictly before the given date. */
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(k -> k.date().isBefore(date));
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private void apply(Long doctorId, LocalDate date, LocalTime time, boolean booked) {
+        DaySlots day = days.get(new SlotKey(doctorId, date));
+        if (day == null) {
+            missedMutations.incrementAndGet();
+            return;
+        }
+        day.set(time, booked);
+    }
+
+    private DaySlots load(Doctor doctor, LocalDate date) {
+        SortedSet<LocalTime> grid = new TreeSet<>();
+        for (DoctorSchedule schedule : scheduleRepository
+                .findByDoctorAndDayOfWeekAndActiveTrue(doctor, date.getDayOfWeek())) {
+            LocalTime cursor = schedule.getStartTime();
+            LocalTime next = cursor.plusMinutes(slotDurationMinutes);
+            // next.isAfter(cursor) guards against wrapping past midnight
+            while (next.isAfter(cursor) && next.compareTo(schedule.getEndTime()) <= 0) {
+                grid.add(cursor);
+                cursor = next;
+                next = cursor.plusMinutes(slotDurationMinutes);
+            }
+        }
+
+        DaySlots day = new DaySlots(grid.toArray(new LocalTime[0]));
+        appointmentRepository.findBookedTimes(doctor, date).forEach(t -> day.set(t, true));
+        log.debug("Slot index loaded for doctor {} on {}: {} slots", doctor.getId(), date, grid.size());
+        return day;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date) {
+    }
+
+    /** Sorted slot start times plus one bit per slot. */
+    private static final class DaySlots {
+
+        private final LocalTime[] times;
+        private final BitSet booked;
+
+        private DaySlots(LocalTime[] times) {
+            this.times = times;
+            this.booked = new BitSet(times.length);
+        }
+
+        synchronized void set(LocalTime time, boolean value) {
+            int i = Arrays.binarySearch(times, time);
+            if (i >= 0) {
+                booked.set(i, value);
+            }
+        }
+
+        synchronized List<AvailableSlotResponse> toResponses() {
+            List<AvailableSlotResponse> slots = new ArrayList<>(times.length);
+            for (int i = 0; i < times.length; i++) {
+                slots.add(new AvailableSlotResponse(times[i], !booked.get(i)));
+            }
+            return slots;
+        }
+    }
+}
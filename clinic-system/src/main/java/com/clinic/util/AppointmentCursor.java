@@ -0,0 +1,43 @@
+package com.clinic.util;
+
+import com.clinic.dto.response.AppointmentResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * AppointmentCursor — keyset position in a patient's appointment history.
+ *
+ * Holds the (appointmentDate, appointmentTime, id) of the last row shown;
+ * the next page starts strictly after it in newest-first order. id breaks
+ * ties, so the order is total and a page boundary never skips or repeats
+ * a row even if appointments are booked or cancelled between requests.
+ *
+ * The token is the position in URL-safe Base64 ("2024-05-01_09:30_123"),
+ * so the same row always yields the same token.
+ */
+public record AppointmentCursor(LocalDate date, LocalTime time, Long id) {
+
+    public static AppointmentCursor after(AppointmentResponse last) {
+        return new AppointmentCursor(last.getAppointmentDate(), last.getAppointmentTime(), last.getId());
+    }
+
+    public String encode() {
+        String position = date + "_" + time + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @throws IllegalArgumentException if the token was not produced by encode() */
+    public static AppointmentCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("_");
+            if (parts.length != 3) throw new IllegalArgumentException("Malformed cursor");
+            return new AppointmentCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.clinic.util;
+
+import com.clinic.dto.response.AppointmentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * AppointmentExportWriter — writes AppointmentResponse rows to an export
+ * as they arrive; nothing is buffered beyond the underlying Writer.
+ *
+ *  csv    — RFC 4180, header row first; cells a spreadsheet would read as a
+ *           formula (leading = + - @) get a leading ' so free-text reasons
+ *           cannot run in the auditor's spreadsheet
+ *  ndjson — one JSON object per line (same fields as AppointmentResponse)
+ */
+public final class AppointmentExportWriter implements Consumer<AppointmentResponse> {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        /** @throws IllegalArgumentException for anything but csv / ndjson */
+        public static Format of(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final String CSV_HEADER = "id,appointment_date,appointment_time,status,"
+            + "patient_id,patient_name,doctor_id,doctor_name,doctor_specialization,"
+            + "reason,reminder_sent,cancellation_reason";
+
+    private final Format format;
+    private final Writer out;
+    private final ObjectMapper objectMapper;
+
+    public AppointmentExportWriter(Format format, Writer out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Writes the CSV header (no-op for NDJSON). */
+    public void begin() {
+        if (format == Format.CSV) line(CSV_HEADER);
+    }
+
+    @Override
+    public void accept(AppointmentResponse a) {
+        if (format == Format.NDJSON) {
+            try {
+                line(objectMapper.writeValueAsString(a));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        line(String.join(",",
+                String.valueOf(a.getId()),
+                String.valueOf(a.getAppointmentDate()),
+                String.valueOf(a.getAppointmentTime()),
+                a.getStatus(),
+                String.valueOf(a.getPatientId()),
+                cell(a.getPatientName()),
+                String.valueOf(a.getDoctorId()),
+                cell(a.getDoctorName()),
+                cell(a.getDoctorSpecialization()),
+                cell(a.getReason()),
+                String.valueOf(a.isReminderSent()),
+                cell(a.getCancellationReason())));
+    }
+
+    private void line(String text) {
+        try {
+            out.write(text);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String cell(String value) {
+        if (value == null || value.isEmpty()) return "";
+        if ("=+-@".indexOf(value.charAt(0)) >= 0) value = "'" + value;
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
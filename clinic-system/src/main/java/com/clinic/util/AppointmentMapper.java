@@ -11,6 +11,10 @@ import org.springframework.stereotype.Component;
  * only ever see DTOs, not JPA-managed entity objects).
  * This is the Mapper pattern — a lightweight alternative to MapStruct for
  * readability in a teaching/academic context.
+ *
+ * Used for single appointments. List views skip the entity altogether:
+ * AppointmentRepository.APPOINTMENT_RESPONSE builds the same DTO in the
+ * query, so keep the two in step.
  */
 @Component
 public class AppointmentMapper {
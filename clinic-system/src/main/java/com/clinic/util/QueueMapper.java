@@ -2,6 +2,7 @@ package com.clinic.util;
 
 import com.clinic.dto.response.QueueEntryResponse;
 import com.clinic.model.entity.QueueEntry;
+import com.clinic.service.support.LiveQueueEntry;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -22,4 +23,20 @@ public class QueueMapper {
                 .walkIn(q.isWalkIn())
                 .build();
     }
+
+    public QueueEntryResponse toResponse(LiveQueueEntry q) {
+        return QueueEntryResponse.builder()
+                .id(q.id())
+                .patientId(q.patientId())
+                .patientName(q.patientName())
+                .patientPhone(q.patientPhone())
+                .doctorId(q.doctorId())
+                .doctorName(q.doctorName())
+                .queueDate(q.queueDate())
+                .queueNumber(q.queueNumber())
+                .status(q.status().name())
+                .checkInTime(q.checkInTime())
+                .walkIn(q.walkIn())
+                .build();
+    }
 }
@@ -1,46 +1,44 @@
 package com.clinic.util;
 
-import com.clinic.model.entity.User;
-import com.clinic.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.clinic.security.ClinicUserPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
-
-import java.util.Optional;
 
 /**
  * SecurityUtils — convenience methods for getting the currently authenticated user.
  *
- * Used by controllers to pass the logged-in user's ID to service methods
- * without needing to inject UserRepository everywhere.
+ * Used by controllers to pass the logged-in user's ID to service methods.
+ * The ID is read from the ClinicUserPrincipal stored at login, so no
+ * database lookup is needed.
  */
-@Component
-public class SecurityUtils {
-
-    @Autowired
-    private static UserRepository userRepository;
+public final class SecurityUtils {
 
+    private SecurityUtils() {
+    }
 
     /** Returns the ID of the currently logged-in user. */
     public static Long getCurrentUserId() {
-        String email = getCurrentEmail();
-        Optional<User> user = userRepository.findByEmail(email);
-        if (user.isPresent())
-        return userRepository.findByEmail(email)
-                .map(User::getId)
-                .orElseThrow(() -> new RuntimeException("Authenticated user not found in DB"));
-
-        return null;
+        return getCurrentPrincipal().getUserId();
     }
 
     /** Returns the email (username) of the currently logged-in user. */
     public static String getCurrentEmail() {
+        return getAuthentication().getName();
+    }
+
+    /** Returns the principal captured at login (user id, role, clinic id). */
+    public static ClinicUserPrincipal getCurrentPrincipal() {
+        if (getAuthentication().getPrincipal() instanceof ClinicUserPrincipal principal) {
+            return principal;
+        }
+        throw new RuntimeException("Authenticated user not found");
+    }
+
+    private static Authentication getAuthentication() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
             throw new RuntimeException("No authenticated user found");
         }
-        return auth.getName();
+        return auth;
     }
 }
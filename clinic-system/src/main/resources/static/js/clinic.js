@@ -8,6 +8,8 @@
  *  4. Enforce minimum date (today) on all date pickers
  *  5. Disable submit buttons on form submission to prevent double-posting
  *  6. Highlight the active nav link based on the current URL
+ *  7. Patient queue page: live position updates over Server-Sent Events
+ *  8. Admin queue board: poll the shared board snapshot, redraw on change
  */
 
 document.addEventListener('DOMContentLoaded', function () {
@@ -104,4 +106,92 @@ document.addEventListener('DOMContentLoaded', function () {
         }
     });
 
-});
\ No newline at end of file
+
+
+    // ── 7. Live queue status (Server-Sent Events) ─────────────────────────────
+    // The server pushes {queueNumber, status, patientsAhead, estimatedWaitMinutes}
+    // only when something changed. Position and wait are updated in place; a
+    // status change reloads the page so the right message is rendered.
+    // EventSource reconnects on its own; a 204 from the server ends the stream.
+    var queueCard = document.querySelector('[data-queue-stream]');
+    if (queueCard && window.EventSource) {
+        var statusBadge = queueCard.querySelector('[data-queue-status]');
+        var source = new EventSource(queueCard.getAttribute('data-queue-stream'));
+
+        source.addEventListener('queue', function (e) {
+            var update = JSON.parse(e.data);
+            if (statusBadge && update.status !== statusBadge.getAttribute('data-queue-status')) {
+                source.close();
+                window.location.reload();
+                return;
+            }
+            queueCard.querySelectorAll('[data-queue-field]').forEach(function (el) {
+                var value = update[el.getAttribute('data-queue-field')];
+                el.textContent = value + (el.getAttribute('data-queue-suffix') || '');
+            });
+        });
+
+        source.addEventListener('error', function () {
+            if (source.readyState === EventSource.CLOSED) {
+                window.location.reload();
+            }
+        });
+    }
+
+
+    // ── 8. Queue board polling ────────────────────────────────────────────────
+    // The board JSON carries an ETag; with cache: 'no-cache' the browser
+    // revalidates with If-None-Match and an unchanged board costs a bodiless
+    // 304 (fetch still hands back the cached body). Rows are redrawn only
+    // when the ETag moves; a different set of doctors reloads the page.
+    var board = document.querySelector('[data-queue-board]');
+    if (board && window.fetch) {
+        var boardUrl = board.getAttribute('data-queue-board');
+        var lastEtag = null;
+
+        function render(snapshot) {
+            var rows = board.querySelectorAll('[data-board-doctor]');
+            if (rows.length !== snapshot.doctors.length) {
+                window.location.reload();
+                return;
+            }
+            snapshot.doctors.forEach(function (doctor) {
+                var row = board.querySelector('[data-board-doctor="' + doctor.doctorId + '"]');
+                if (!row) {
+                    window.location.reload();
+                    return;
+                }
+                row.querySelectorAll('[data-board-field]').forEach(function (el) {
+                    var value = doctor[el.getAttribute('data-board-field')];
+                    el.textContent = value === null ? '—' : value;
+                });
+            });
+            var updated = board.querySelector('[data-board-updated]');
+            if (updated) {
+                updated.textContent = new Date(snapshot.generatedAt).toLocaleTimeString();
+            }
+        }
+
+        function poll() {
+            fetch(boardUrl, { cache: 'no-cache', credentials: 'same-origin' })
+                .then(function (response) {
+                    if (response.redirected || !response.ok) {
+                        window.location.reload();
+                        return null;
+                    }
+                    var etag = response.headers.get('ETag');
+                    if (etag && etag === lastEtag) return null;
+                    lastEtag = etag;
+                    return response.json();
+                })
+                .then(function (snapshot) {
+                    if (snapshot) render(snapshot);
+                })
+                .catch(function () { /* network blip: try again next tick */ })
+                .finally(function () { setTimeout(poll, 5000); });
+        }
+
+        poll();
+    }
+
+});
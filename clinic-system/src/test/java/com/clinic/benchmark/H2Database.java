@@ -0,0 +1,123 @@
+package com.clinic.benchmark;
+
+import com.clinic.model.entity.Clinic;
+import com.clinic.repository.ClinicRepository;
+import com.clinic.service.NotificationService;
+import com.clinic.service.impl.AdminReportServiceImpl;
+import com.clinic.service.impl.AppointmentServiceImpl;
+import com.clinic.service.impl.QueueServiceImpl;
+import com.clinic.service.support.*;
+import com.clinic.util.AppointmentMapper;
+import com.clinic.util.QueueMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.mockito.Mockito;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * H2Database — a trimmed Spring context over an in-memory H2 database,
+ * seeded with SyntheticClinic, for the H2-backed benchmark variants.
+ *
+ * Only JPA, transactions and the services under measurement are started;
+ * no web layer, security, mail or schedulers. Hibernate runs with the
+ * production settings from application.properties (batching, second-level
+ * and query cache) except for the dialect and schema handling.
+ */
+final class H2Database implements AutoCloseable {
+
+    private static final String[] PROPERTIES = {
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--logging.file.name=",
+            "--logging.level.root=WARN",
+            "--logging.level.com.clinic=WARN"};
+
+    private final ConfigurableApplicationContext context;
+    private final SyntheticClinic data;
+    private final TransactionTemplate readOnly;
+
+    private H2Database(ConfigurableApplicationContext context, SyntheticClinic data) {
+        this.context = context;
+        this.data = data;
+        this.readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.readOnly.setReadOnly(true);
+    }
+
+    static H2Database open() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(PROPERTIES);
+        SyntheticClinic data = SyntheticClinic.unsaved();
+        EntityManager em = context.getBean(EntityManager.class);
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(s -> data.persist(em));
+        return new H2Database(context, data);
+    }
+
+    SyntheticClinic data() {
+        return data;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** The seeded clinic, detached — usable as a query parameter. */
+    Clinic clinic() {
+        return bean(ClinicRepository.class).findById(data.clinic.getId()).orElseThrow();
+    }
+
+    <T> T inReadOnlyTransaction(Supplier<T> work) {
+        return readOnly.execute(s -> work.get());
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    /**
+     * Not @SpringBootConfiguration or @Configuration: test-context discovery
+     * and ClinicAppApplication's component scan would pick it up from the
+     * test classpath. The imports below make it a configuration class anyway.
+     */
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Clinic.class)
+    @EnableJpaRepositories(basePackageClasses = ClinicRepository.class)
+    @EnableJpaAuditing
+    @Import({AppointmentServiceImpl.class, AppointmentMapper.class, SlotAvailabilityIndex.class,
+            BookingLockRegistry.class, QueueServiceImpl.class, QueueMapper.class, QueueEngine.class,
+            QueueNumberAllocator.class, ConsultDurationEstimator.class, DailyStatsRecorder.class,
+            AdminReportServiceImpl.class, ClinicMetrics.class, SimpleMeterRegistry.class})
+    static class Config {
+
+        /** Booking reads never notify; the real service needs mail settings. */
+        @Bean
+        NotificationService notificationService() {
+            return Mockito.mock(NotificationService.class);
+        }
+    }
+}
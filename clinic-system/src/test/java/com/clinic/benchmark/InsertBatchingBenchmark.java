@@ -0,0 +1,145 @@
+package com.clinic.benchmark;
+
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Consumer;
+
+/**
+ * InsertBatchingBenchmark — insert throughput with JDBC batching off vs on,
+ * for the notification log and a bulk appointment import.
+ *
+ * Opt-in: mvn test -Dtest=InsertBatchingBenchmark -Dbenchmark=true
+ * Runs against H2 by default; pass -Dspring.datasource.url=... (plus
+ * -Dspring.test.database.replace=none) to measure a real PostgreSQL, where
+ * each saved round trip is worth far more than in-process H2.
+ *
+ * Batching is toggled per session (Session.setJdbcBatchSize), so both runs
+ * use the same sequence-id mapping; "statements" is the number of JDBC
+ * statements prepared, i.e. round trips for the inserts.
+ */
+@DataJpaTest(showSql = false, properties =
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsertBatchingBenchmark {
+
+    private static final int ROWS = 2_000;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private TransactionTemplate tx;
+
+    @Test
+    void notificationLog() {
+        User user = tx.execute(s -> {
+            Clinic clinic = clinic("BNC-001");
+            return persist(User.builder().fullName("Bench Patient").email("bench@test.com")
+                    .password("x").phone("9800000009").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+        });
+        compare("notification log", i -> em.persist(Notification.builder()
+                .user(em.getReference(User.class, user.getId())).channel("EMAIL").type("REMINDER")
+                .subject("Reminder " + i).body("Your appointment is tomorrow.")
+                .sentAt(LocalDateTime.now()).success(true).build()));
+    }
+
+    @Test
+    void appointmentImport() {
+        Long[] ids = tx.execute(s -> {
+            Clinic clinic = clinic("BNC-002");
+            User du = persist(User.builder().fullName("Bench Doctor").email("bench.dr@test.com")
+                    .password("x").phone("9800000010").role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+            User pu = persist(User.builder().fullName("Bench Patient").email("bench.pt@test.com")
+                    .password("x").phone("9800000011").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+            Doctor doctor = persist(Doctor.builder().user(du).clinic(clinic).specialization("GP")
+                    .maxDailyAppointments(20).available(true).build());
+            Patient patient = persist(Patient.builder().user(pu).clinic(clinic).emailConsent(true).build());
+            return new Long[] {clinic.getId(), doctor.getId(), patient.getId()};
+        });
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        compare("appointment import", i -> em.persist(Appointment.builder()
+                .clinic(em.getReference(Clinic.class, ids[0]))
+                .doctor(em.getReference(Doctor.class, ids[1]))
+                .patient(em.getReference(Patient.class, ids[2]))
+                .appointmentDate(start.plusDays(i / 20)).appointmentTime(LocalTime.of(8, 0).plusMinutes(i % 20 * 30))
+                .status(AppointmentStatus.COMPLETED).reminderSent(true).build()));
+    }
+
+    // ─── Harness ──────────────────────────────────────────────────────────────
+
+    private void compare(String name, Consumer<Integer> insert) {
+        Result off = measure(1, insert);
+        Result on = measure(50, insert);
+        System.out.printf("%n%s, %d rows per run%n", name, ROWS);
+        System.out.printf("  batching off: %8.0f rows/s  %5d statements%n", off.rowsPerSecond(), off.statements());
+        System.out.printf("  batch of 50:  %8.0f rows/s  %5d statements  (%.1fx)%n",
+                on.rowsPerSecond(), on.statements(), on.rowsPerSecond() / off.rowsPerSecond());
+    }
+
+    private Result measure(int batchSize, Consumer<Integer> insert) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        for (int w = 0; w < WARMUP; w++) {
+            run(batchSize, insert);
+        }
+        long nanos = 0;
+        long statements = 0;
+        for (int r = 0; r < RUNS; r++) {
+            statistics.clear();
+            nanos += run(batchSize, insert);
+            statements += statistics.getPrepareStatementCount();
+        }
+        return new Result(ROWS * RUNS / (nanos / 1e9), statements / RUNS);
+    }
+
+    /** Inserts ROWS rows in one transaction, then removes them; returns the insert time. */
+    private long run(int batchSize, Consumer<Integer> insert) {
+        long elapsed = tx.execute(s -> {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                insert.accept(i);
+            }
+            em.flush();
+            return System.nanoTime() - t0;
+        });
+        tx.executeWithoutResult(s -> {
+            em.createQuery("DELETE FROM Notification").executeUpdate();
+            em.createQuery("DELETE FROM Appointment").executeUpdate();
+        });
+        return elapsed;
+    }
+
+    private Clinic clinic(String code) {
+        return persist(Clinic.builder().name("Bench Clinic").registrationCode(code)
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    private record Result(double rowsPerSecond, long statements) {
+    }
+}
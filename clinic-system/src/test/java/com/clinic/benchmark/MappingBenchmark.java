@@ -0,0 +1,127 @@
+package com.clinic.benchmark;
+
+import com.clinic.dto.response.AppointmentResponse;
+import com.clinic.dto.response.QueueEntryResponse;
+import com.clinic.model.entity.Appointment;
+import com.clinic.model.entity.Clinic;
+import com.clinic.model.entity.QueueEntry;
+import com.clinic.repository.AppointmentRepository;
+import com.clinic.repository.QueueEntryRepository;
+import com.clinic.service.support.LiveQueueEntry;
+import com.clinic.util.AppointmentMapper;
+import com.clinic.util.QueueMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.benchmark.SyntheticClinic.BOOKING_DAY;
+import static com.clinic.benchmark.SyntheticClinic.YESTERDAY;
+
+/**
+ * MappingBenchmark — AppointmentMapper and QueueMapper over a clinic's day:
+ * every appointment on BOOKING_DAY, every queue entry of yesterday.
+ *
+ * inMemory* time the mappers alone over ready-built entities (and, for the
+ * queue, the LiveQueueEntry copies QueueEngine holds). h2* add the read:
+ * entities loaded with their participants and then mapped, against the
+ * AppointmentRepository.APPOINTMENT_RESPONSE projection that list views use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final String APPOINTMENTS_WITH_PARTICIPANTS = """
+            SELECT a FROM Appointment a
+            JOIN FETCH a.patient p JOIN FETCH p.user
+            JOIN FETCH a.doctor d JOIN FETCH d.user
+            WHERE a.clinic = :clinic AND a.appointmentDate = :date
+            ORDER BY a.appointmentDate, a.appointmentTime
+            """;
+
+    @State(Scope.Benchmark)
+    public static class InMemory {
+        final AppointmentMapper appointmentMapper = new AppointmentMapper();
+        final QueueMapper queueMapper = new QueueMapper();
+        List<Appointment> appointments;
+        List<QueueEntry> queueEntries;
+        List<LiveQueueEntry> liveEntries;
+
+        @Setup
+        public void setUp() {
+            SyntheticClinic data = SyntheticClinic.inMemory();
+            appointments = data.appointments;
+            queueEntries = data.queueEntries.stream().filter(q -> q.getQueueDate().equals(YESTERDAY)).toList();
+            liveEntries = queueEntries.stream().map(LiveQueueEntry::from).toList();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2 {
+        H2Database db;
+        EntityManager em;
+        AppointmentRepository appointments;
+        QueueEntryRepository queueEntries;
+        AppointmentMapper appointmentMapper;
+        QueueMapper queueMapper;
+        Clinic clinic;
+
+        @Setup
+        public void setUp() {
+            db = H2Database.open();
+            em = db.bean(EntityManager.class);
+            appointments = db.bean(AppointmentRepository.class);
+            queueEntries = db.bean(QueueEntryRepository.class);
+            appointmentMapper = db.bean(AppointmentMapper.class);
+            queueMapper = db.bean(QueueMapper.class);
+            clinic = db.clinic();
+        }
+
+        @TearDown
+        public void tearDown() {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> inMemoryAppointments(InMemory state) {
+        return state.appointments.stream().map(state.appointmentMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> inMemoryQueueEntities(InMemory state) {
+        return state.queueEntries.stream().map(state.queueMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> inMemoryLiveQueue(InMemory state) {
+        return state.liveEntries.stream().map(state.queueMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> h2AppointmentEntities(H2 state) {
+        return state.db.inReadOnlyTransaction(() -> state.em
+                .createQuery(APPOINTMENTS_WITH_PARTICIPANTS, Appointment.class)
+                .setParameter("clinic", state.clinic)
+                .setParameter("date", BOOKING_DAY)
+                .getResultStream()
+                .map(state.appointmentMapper::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> h2AppointmentProjection(H2 state) {
+        return state.db.inReadOnlyTransaction(() ->
+                state.appointments.findResponsesByClinicBetween(state.clinic, BOOKING_DAY, BOOKING_DAY));
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> h2QueueEntities(H2 state) {
+        return state.db.inReadOnlyTransaction(() -> state.queueEntries.findWithParticipantsByQueueDate(YESTERDAY)
+                .stream().map(state.queueMapper::toResponse).toList());
+    }
+}
@@ -0,0 +1,397 @@
+package com.clinic.benchmark;
+
+import com.clinic.ClinicAppApplication;
+import com.clinic.benchmark.MorningRushSeeder.Account;
+import com.clinic.model.enums.Role;
+import com.clinic.service.support.QueueEngine;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * MorningRushBenchmark — replays the 08:00–09:00 rush against the whole
+ * application: patients booking and polling their queue position, doctors
+ * calling the next patient, clinic admins watching the dashboard.
+ *
+ * Opt-in: mvn test -Dtest=MorningRushBenchmark -Dbenchmark=true
+ * Boots ClinicAppApplication on a random port over H2 (with the production
+ * second-level cache settings), seeds it with MorningRushSeeder, logs every
+ * account in, then runs rush.clients concurrent clients for rush.seconds
+ * after rush.warmup-seconds of discarded warm-up. Each client loops: pick an
+ * endpoint by the rush.mix weights, pick a random logged-in account with
+ * the right role, send the request, wait rush.think-ms.
+ *
+ * Settings (system properties, defaults in brackets):
+ *   rush.clinics [2]  rush.doctors [4] per clinic  rush.patients [60] per clinic
+ *   rush.clients [100]  rush.seconds [30]  rush.warmup-seconds [5]  rush.think-ms [50]
+ *   rush.mix [book:30,queue:55,next:10,dashboard:5]  rush.seed [42]
+ * To measure a real PostgreSQL pass -Dspring.datasource.url=... (plus
+ * username/password) and -Dspring.test.database.replace=none.
+ *
+ * Clients run on virtual threads where the JVM has them (Java 21+) and on
+ * one platform thread each otherwise. Results per endpoint: requests,
+ * throughput, p50/p99 latency, errors (status >= 400, a redirect to login
+ * or an error page, or an I/O failure) and rejections (a booking sent back
+ * to the form — slot already taken). A doctor calling next on an empty
+ * queue gets the same redirect as a successful call and counts as ok.
+ */
+@SpringBootTest(classes = ClinicAppApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "logging.level.com.clinic=INFO",
+        "management.health.mail.enabled=false",
+        "clinic.sql.budget.on-exceed=log",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MorningRushBenchmark {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private final int clinics = Integer.getInteger("rush.clinics", 2);
+    private final int doctors = Integer.getInteger("rush.doctors", 4);
+    private final int patients = Integer.getInteger("rush.patients", 60);
+    private final int clients = Integer.getInteger("rush.clients", 100);
+    private final int seconds = Integer.getInteger("rush.seconds", 30);
+    private final int warmupSeconds = Integer.getInteger("rush.warmup-seconds", 5);
+    private final int thinkMillis = Integer.getInteger("rush.think-ms", 50);
+    private final long seed = Long.getLong("rush.seed", 42);
+    private final String mix = System.getProperty("rush.mix", "book:30,queue:55,next:10,dashboard:5");
+
+    @LocalServerPort private int port;
+    @Autowired private EntityManager em;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private QueueEngine queueEngine;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    /** Bookings queue confirmation emails; keep them away from a real SMTP server. */
+    @MockBean private JavaMailSender mailSender;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    // ─── Endpoints ────────────────────────────────────────────────────────────
+
+    enum Endpoint {
+        BOOK("book", "POST /patient/appointments/book", Role.PATIENT),
+        QUEUE("queue", "GET  /patient/queue", Role.PATIENT),
+        NEXT("next", "POST /doctor/queue/next", Role.DOCTOR),
+        DASHBOARD("dashboard", "GET  /admin/dashboard", Role.ADMIN);
+
+        final String key;
+        final String label;
+        final Role role;
+
+        Endpoint(String key, String label, Role role) {
+            this.key = key;
+            this.label = label;
+            this.role = role;
+        }
+    }
+
+    private enum Outcome { OK, REJECTED, ERROR }
+
+    /** A logged-in account: session cookie plus the CSRF token for its forms. */
+    private record Session(Account account, String cookie, String csrf) {
+    }
+
+    // ─── Run ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void morningRush() throws Exception {
+        Map<Endpoint, Integer> weights = parseMix(mix);
+        List<Account> accounts = new MorningRushSeeder(em, tx, queueEngine).seed(clinics, doctors, patients);
+        Map<Role, List<Session>> sessions = login(accounts);
+
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        weights.keySet().forEach(e -> stats.put(e, new Stats()));
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(clients);
+        SimpleAsyncTaskExecutor executor = clientExecutor();
+        for (int i = 0; i < clients; i++) {
+            Random random = new Random(seed + i);
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        Endpoint endpoint = pick(weights, random);
+                        List<Session> candidates = sessions.get(endpoint.role);
+                        Session session = candidates.get(random.nextInt(candidates.size()));
+                        long t0 = System.nanoTime();
+                        Outcome outcome = send(endpoint, session, random);
+                        long t1 = System.nanoTime();
+                        if (t0 >= measureFrom && t1 <= end) {
+                            stats.get(endpoint).record(t1 - t0, outcome);
+                        }
+                        if (thinkMillis > 0) Thread.sleep(thinkMillis);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        report(accounts, weights, stats);
+    }
+
+    // ─── Requests ─────────────────────────────────────────────────────────────
+
+    private Outcome send(Endpoint endpoint, Session session, Random random) {
+        HttpRequest request = switch (endpoint) {
+            case BOOK -> {
+                List<Long> doctorIds = session.account().doctorIds();
+                // 18 half-hour slots between 08:00 and 17:00, tomorrow
+                LocalTime time = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(18));
+                yield post(session, "/patient/appointments/book", Map.of(
+                        "doctorId", String.valueOf(doctorIds.get(random.nextInt(doctorIds.size()))),
+                        "appointmentDate", LocalDate.now().plusDays(1).toString(),
+                        "appointmentTime", time.toString(),
+                        "reason", "Morning rush"));
+            }
+            case QUEUE -> get(session, "/patient/queue");
+            case NEXT -> post(session, "/doctor/queue/next", Map.of());
+            case DASHBOARD -> get(session, "/admin/dashboard");
+        };
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            return classify(endpoint, response);
+        } catch (IOException e) {
+            return Outcome.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.ERROR;
+        }
+    }
+
+    private static Outcome classify(Endpoint endpoint, HttpResponse<?> response) {
+        int status = response.statusCode();
+        if (status >= 400) return Outcome.ERROR;
+        if (status / 100 == 3) {
+            String location = response.headers().firstValue("Location").orElse("");
+            if (location.contains("/auth/login") || location.contains("/error")) return Outcome.ERROR;
+            if (endpoint == Endpoint.BOOK && location.endsWith("/patient/appointments/book")) {
+                return Outcome.REJECTED;
+            }
+        }
+        return Outcome.OK;
+    }
+
+    private HttpRequest get(Session session, String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Cookie", session.cookie()).GET().build();
+    }
+
+    private HttpRequest post(Session session, String path, Map<String, String> form) {
+        Map<String, String> body = new LinkedHashMap<>(form);
+        body.put("_csrf", session.csrf());
+        return HttpRequest.newBuilder(uri(path))
+                .header("Cookie", session.cookie())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formEncode(body)))
+                .build();
+    }
+
+    // ─── Login ────────────────────────────────────────────────────────────────
+
+    /** Logs every account in concurrently; fails the run if any login fails. */
+    private Map<Role, List<Session>> login(List<Account> accounts) throws InterruptedException {
+        Queue<Session> sessions = new ConcurrentLinkedQueue<>();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(accounts.size());
+        SimpleAsyncTaskExecutor executor = clientExecutor();
+        executor.setConcurrencyLimit(32);
+        for (Account account : accounts) {
+            executor.execute(() -> {
+                try {
+                    sessions.add(login(account));
+                } catch (Exception e) {
+                    failures.add(account.email() + ": " + e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(failures.size() + " logins failed, e.g. " + failures.peek());
+        }
+        return sessions.stream().collect(Collectors.groupingBy(s -> s.account().role()));
+    }
+
+    private Session login(Account account) throws IOException, InterruptedException {
+        HttpResponse<String> form = http.send(HttpRequest.newBuilder(uri("/auth/login")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String anonymous = sessionCookie(form);
+
+        HttpResponse<Void> login = http.send(HttpRequest.newBuilder(uri("/auth/login"))
+                        .header("Cookie", anonymous)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(formEncode(Map.of(
+                                "email", account.email(),
+                                "password", MorningRushSeeder.PASSWORD,
+                                "_csrf", csrf(form.body())))))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = login.headers().firstValue("Location").orElse("");
+        if (login.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("login returned " + login.statusCode() + " " + location);
+        }
+        String cookie = sessionCookie(login);
+
+        // the CSRF token is replaced at login; read the new one off the landing page
+        HttpResponse<String> landing = http.send(HttpRequest.newBuilder(uri(location))
+                .header("Cookie", cookie).GET().build(), HttpResponse.BodyHandlers.ofString());
+        return new Session(account, cookie, csrf(landing.body()));
+    }
+
+    private static String sessionCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') < 0 ? c.length() : c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no session cookie (" + response.statusCode() + ")"));
+    }
+
+    private static String csrf(String html) {
+        Matcher m = CSRF.matcher(html);
+        if (!m.find()) throw new IllegalStateException("no CSRF token on page");
+        return m.group(1);
+    }
+
+    // ─── Harness ──────────────────────────────────────────────────────────────
+
+    /** Virtual threads on Java 21+, one platform thread per client before that. */
+    private static SimpleAsyncTaskExecutor clientExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rush-");
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            // Java 17: stay on platform threads
+        }
+        return executor;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            Endpoint endpoint = Arrays.stream(Endpoint.values())
+                    .filter(e -> e.key.equals(kv[0].trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("rush.mix: unknown endpoint " + kv[0]));
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) weights.put(endpoint, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("rush.mix has no positive weights: " + mix);
+        return weights;
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> weights, Random random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int r = random.nextInt(total);
+        for (Map.Entry<Endpoint, Integer> e : weights.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) return e.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    private void report(List<Account> accounts, Map<Endpoint, Integer> weights, Map<Endpoint, Stats> stats) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c ->
+                c.getMetaData().getDatabaseProductName());
+        System.out.printf("%nmorning rush on %s: %d clinics, %d doctors, %d patients, %d accounts%n",
+                database, clinics, clinics * doctors, clinics * patients, accounts.size());
+        System.out.printf("%d clients, %d s measured after %d s warm-up, think %d ms, mix %s, seed %d%n",
+                clients, seconds, warmupSeconds, thinkMillis, weights, seed);
+        System.out.printf("  %-32s %8s %8s %9s %9s %8s %9s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "errors", "rejected");
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Endpoint, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            long[] latencies = s.sortedLatencies();
+            System.out.printf("  %-32s %8d %8.1f %9.2f %9.2f %7.2f%% %8.2f%%%n",
+                    e.getKey().label, latencies.length, latencies.length / (double) seconds,
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                    percent(s.errors.sum(), latencies.length), percent(s.rejected.sum(), latencies.length));
+            requests += latencies.length;
+            errors += s.errors.sum();
+        }
+        System.out.printf("  %-32s %8d %8.1f %9s %9s %7.2f%%%n",
+                "total", requests, requests / (double) seconds, "", "", percent(errors, requests));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    /** Resolves a path, or a redirect Location that may already be absolute. */
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port).resolve(path);
+    }
+
+    private static String formEncode(Map<String, String> form) {
+        return form.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static final class Stats {
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        void record(long nanos, Outcome outcome) {
+            latencies.add(nanos);
+            if (outcome == Outcome.ERROR) errors.increment();
+            if (outcome == Outcome.REJECTED) rejected.increment();
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
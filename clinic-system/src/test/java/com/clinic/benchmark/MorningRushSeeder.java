@@ -0,0 +1,138 @@
+package com.clinic.benchmark;
+
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.service.support.QueueEngine;
+import jakarta.persistence.EntityManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MorningRushSeeder — DataSeeder-style generator for MorningRushBenchmark.
+ *
+ * Per clinic (registration code RUSH-001, RUSH-002, ...):
+ *  - one ADMIN          admin.{c}@rush.test
+ *  - doctors            dr.{c}.{d}@rush.test, working 08:00–17:00 every day
+ *  - patients           pt.{c}.{p}@rush.test
+ *  - today's queue      every other patient checked in as a walk-in, spread
+ *                       round-robin over the doctors, still WAITING
+ *
+ * Every account uses PASSWORD. Its hash is computed once at BCrypt cost 4:
+ * matches() reads the cost from the hash, so hundreds of logins stay cheap
+ * (the login path is not what the benchmark measures).
+ */
+final class MorningRushSeeder {
+
+    static final String PASSWORD = "Rush@1234";
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final QueueEngine queueEngine;
+    private final String passwordHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+    MorningRushSeeder(EntityManager em, TransactionTemplate tx, QueueEngine queueEngine) {
+        this.em = em;
+        this.tx = tx;
+        this.queueEngine = queueEngine;
+    }
+
+    /** A seeded login; doctorIds are the doctors of the account's clinic. */
+    record Account(String email, Role role, int clinic, List<Long> doctorIds) {
+    }
+
+    List<Account> seed(int clinics, int doctorsPerClinic, int patientsPerClinic) {
+        List<Account> accounts = new ArrayList<>();
+        for (int c = 1; c <= clinics; c++) {
+            int clinicNo = c;
+            accounts.addAll(tx.execute(s -> seedClinic(clinicNo, doctorsPerClinic, patientsPerClinic)));
+        }
+        // load the walk-ins into the live queues, as at startup
+        queueEngine.rebuild();
+        return accounts;
+    }
+
+    private List<Account> seedClinic(int c, int doctorCount, int patientCount) {
+        Clinic clinic = persist(Clinic.builder()
+                .name("Rush Clinic " + c)
+                .registrationCode(String.format("RUSH-%03d", c))
+                .address("Kathmandu").city("Kathmandu")
+                .status(ClinicStatus.ACTIVE)
+                .maxDoctors(doctorCount)
+                .build());
+
+        List<Account> accounts = new ArrayList<>();
+        List<Long> doctorIds = new ArrayList<>();
+        List<Doctor> doctors = new ArrayList<>();
+
+        User admin = user(clinic, "Rush Admin " + c, "admin." + c + "@rush.test", Role.ADMIN, c, 0);
+        accounts.add(new Account(admin.getEmail(), Role.ADMIN, c, doctorIds));
+
+        for (int d = 1; d <= doctorCount; d++) {
+            User drUser = user(clinic, "Rush Doctor " + c + "." + d, "dr." + c + "." + d + "@rush.test",
+                    Role.DOCTOR, c, d);
+            Doctor doctor = persist(Doctor.builder()
+                    .user(drUser).clinic(clinic)
+                    .specialization("General Physician")
+                    .consultationRoom("Room " + d)
+                    .maxDailyAppointments(40)
+                    .available(true)
+                    .build());
+            for (DayOfWeek day : DayOfWeek.values()) {
+                persist(DoctorSchedule.builder()
+                        .doctor(doctor).dayOfWeek(day)
+                        .startTime(LocalTime.of(8, 0)).endTime(LocalTime.of(17, 0))
+                        .active(true).build());
+            }
+            doctors.add(doctor);
+            accounts.add(new Account(drUser.getEmail(), Role.DOCTOR, c, doctorIds));
+        }
+        em.flush();
+        doctors.forEach(d -> doctorIds.add(d.getId()));
+
+        LocalDate today = LocalDate.now();
+        int[] queueNumbers = new int[doctorCount];
+        for (int p = 1; p <= patientCount; p++) {
+            User ptUser = user(clinic, "Rush Patient " + c + "." + p, "pt." + c + "." + p + "@rush.test",
+                    Role.PATIENT, c, 1000 + p);
+            Patient patient = persist(Patient.builder().user(ptUser).clinic(clinic).emailConsent(true).build());
+            accounts.add(new Account(ptUser.getEmail(), Role.PATIENT, c, doctorIds));
+
+            if (p % 2 == 0) {
+                int d = (p / 2) % doctorCount;
+                persist(QueueEntry.builder()
+                        .clinic(clinic).patient(patient).doctor(doctors.get(d))
+                        .queueDate(today).queueNumber(++queueNumbers[d])
+                        .status(QueueStatus.WAITING).walkIn(true)
+                        .checkInTime(LocalDateTime.now())
+                        .build());
+            }
+        }
+        return accounts;
+    }
+
+    private User user(Clinic clinic, String name, String email, Role role, int c, int n) {
+        return persist(User.builder()
+                .fullName(name)
+                .email(email)
+                .password(passwordHash)
+                .phone(String.format("+977 98%03d%05d", c, n))
+                .role(role)
+                .clinic(clinic)
+                .enabled(true)
+                .build());
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,120 @@
+package com.clinic.benchmark;
+
+import com.clinic.dto.response.QueueEntryResponse;
+import com.clinic.model.entity.Doctor;
+import com.clinic.repository.*;
+import com.clinic.service.QueueService;
+import com.clinic.service.impl.QueueServiceImpl;
+import com.clinic.service.support.*;
+import com.clinic.util.QueueMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.benchmark.SyntheticClinic.TODAY;
+import static com.clinic.benchmark.SyntheticClinic.YESTERDAY;
+import static com.clinic.benchmark.SyntheticClinic.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * QueuePositionBenchmark — QueueServiceImpl position and wait computation
+ * over a QUEUE_LENGTH queue.
+ *
+ *  doctorQueue — getDoctorQueue for today: running patients-ahead count and
+ *                wait estimate for every entry, served by QueueEngine
+ *  myStatus    — getMyQueueStatus for the last patient in the queue
+ *  pastQueue   — getDoctorQueue for yesterday, read from the database (H2 only)
+ *
+ * inMemory* load the engine from SyntheticClinic; h2* from H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueuePositionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class InMemory {
+        QueueService service;
+        Long doctorId;
+        Long patientUserId;
+
+        @Setup
+        public void setUp() {
+            SyntheticClinic data = SyntheticClinic.inMemory();
+            Doctor doctor = data.doctors.get(0);
+            doctorId = doctor.getId();
+            patientUserId = data.lastWaiting(doctor).getPatient().getUser().getId();
+
+            QueueEntryRepository queueEntries = stub(QueueEntryRepository.class);
+            when(queueEntries.findByDoctorIdAndQueueDateOrderByQueueNumberAsc(anyLong(), any()))
+                    .thenAnswer(i -> data.queue(i.getArgument(0), i.getArgument(1)));
+            ConsultDurationEstimator consultDurations = new ConsultDurationEstimator(queueEntries, 15, 0.2, 120, 14);
+            DailyStatsRecorder dailyStats = stub(DailyStatsRecorder.class);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            QueueEngine engine = new QueueEngine(queueEntries, dailyStats, consultDurations,
+                    stub(PlatformTransactionManager.class), registry);
+            service = new QueueServiceImpl(queueEntries, stub(AppointmentRepository.class),
+                    stub(PatientRepository.class), stub(DoctorRepository.class), new QueueMapper(),
+                    new QueueNumberAllocator(queueEntries), engine, stub(ApplicationEventPublisher.class),
+                    dailyStats, consultDurations, new ClinicMetrics(registry));
+            service.getDoctorQueue(doctorId, TODAY);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2 {
+        H2Database db;
+        QueueService service;
+        Long doctorId;
+        Long patientUserId;
+
+        @Setup
+        public void setUp() {
+            db = H2Database.open();
+            service = db.bean(QueueService.class);
+            Doctor doctor = db.data().doctors.get(0);
+            doctorId = doctor.getId();
+            patientUserId = db.data().lastWaiting(doctor).getPatient().getUser().getId();
+            // QueueEngine loads a doctor's queue on first use
+            service.getDoctorQueue(doctorId, TODAY);
+        }
+
+        @TearDown
+        public void tearDown() {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> inMemoryDoctorQueue(InMemory state) {
+        return state.service.getDoctorQueue(state.doctorId, TODAY);
+    }
+
+    @Benchmark
+    public QueueEntryResponse inMemoryMyStatus(InMemory state) {
+        return state.service.getMyQueueStatus(state.patientUserId, TODAY);
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> h2DoctorQueue(H2 state) {
+        return state.service.getDoctorQueue(state.doctorId, TODAY);
+    }
+
+    @Benchmark
+    public QueueEntryResponse h2MyStatus(H2 state) {
+        return state.service.getMyQueueStatus(state.patientUserId, TODAY);
+    }
+
+    @Benchmark
+    public List<QueueEntryResponse> h2PastQueue(H2 state) {
+        return state.service.getDoctorQueue(state.doctorId, YESTERDAY);
+    }
+}
@@ -0,0 +1,82 @@
+package com.clinic.benchmark;
+
+import com.clinic.dto.response.DailyReportResponse;
+import com.clinic.repository.DailyClinicStatsRepository;
+import com.clinic.service.AdminReportService;
+import com.clinic.service.impl.AdminReportServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.benchmark.SyntheticClinic.TODAY;
+import static com.clinic.benchmark.SyntheticClinic.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReportAggregationBenchmark — AdminReportServiceImpl report building from
+ * the daily_clinic_stats rollup, for one day and for a quarter.
+ *
+ * inMemory* sum SyntheticClinic's stats rows in place of sumBetween, so they
+ * time the aggregation and report arithmetic; h2* run sumBetween on H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportAggregationBenchmark {
+
+    private static final int QUARTER_DAYS = 90;
+
+    @State(Scope.Benchmark)
+    public static class InMemory {
+        AdminReportService service;
+
+        @Setup
+        public void setUp() {
+            SyntheticClinic data = SyntheticClinic.inMemory();
+            DailyClinicStatsRepository stats = stub(DailyClinicStatsRepository.class);
+            when(stats.sumBetween(any(), any()))
+                    .thenAnswer(i -> data.totals(i.getArgument(0), i.getArgument(1)));
+            service = new AdminReportServiceImpl(stats);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2 {
+        H2Database db;
+        AdminReportService service;
+
+        @Setup
+        public void setUp() {
+            db = H2Database.open();
+            service = db.bean(AdminReportService.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public DailyReportResponse inMemoryDay(InMemory state) {
+        return state.service.getDailyReport(TODAY);
+    }
+
+    @Benchmark
+    public DailyReportResponse inMemoryQuarter(InMemory state) {
+        return state.service.getDateRangeReport(TODAY.minusDays(QUARTER_DAYS - 1), TODAY);
+    }
+
+    @Benchmark
+    public DailyReportResponse h2Day(H2 state) {
+        return state.service.getDailyReport(TODAY);
+    }
+
+    @Benchmark
+    public DailyReportResponse h2Quarter(H2 state) {
+        return state.service.getDateRangeReport(TODAY.minusDays(QUARTER_DAYS - 1), TODAY);
+    }
+}
@@ -0,0 +1,116 @@
+package com.clinic.benchmark;
+
+import com.clinic.dto.response.AvailableSlotResponse;
+import com.clinic.model.entity.Doctor;
+import com.clinic.repository.*;
+import com.clinic.service.AppointmentService;
+import com.clinic.service.NotificationService;
+import com.clinic.service.impl.AppointmentServiceImpl;
+import com.clinic.service.support.BookingLockRegistry;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import com.clinic.util.AppointmentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.benchmark.SyntheticClinic.BOOKING_DAY;
+import static com.clinic.benchmark.SyntheticClinic.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * SlotGenerationBenchmark — AppointmentServiceImpl.getAvailableSlots.
+ *
+ *  cold   — the cached days up to BOOKING_DAY are evicted first, so the grid
+ *           is generated from the schedules and the booked times laid over it
+ *  cached — the day is already in SlotAvailabilityIndex
+ *
+ * inMemory* answer repository calls from SyntheticClinic; h2* go through the
+ * repositories (and the schedule query cache) against H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotGenerationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class InMemory {
+        SlotAvailabilityIndex index;
+        AppointmentService service;
+        Long doctorId;
+
+        @Setup
+        public void setUp() {
+            SyntheticClinic data = SyntheticClinic.inMemory();
+            Doctor doctor = data.doctors.get(0);
+            doctorId = doctor.getId();
+
+            DoctorScheduleRepository schedules = stub(DoctorScheduleRepository.class);
+            when(schedules.findByDoctorAndDayOfWeekAndActiveTrue(any(), any()))
+                    .thenAnswer(i -> data.activeSchedules(i.getArgument(0), i.getArgument(1)));
+            AppointmentRepository appointments = stub(AppointmentRepository.class);
+            when(appointments.findBookedTimes(any(), any()))
+                    .thenAnswer(i -> data.bookedTimes(i.getArgument(0), i.getArgument(1)));
+            DoctorRepository doctors = stub(DoctorRepository.class);
+            when(doctors.findById(doctorId)).thenReturn(Optional.of(doctor));
+
+            index = new SlotAvailabilityIndex(schedules, appointments);
+            ReflectionTestUtils.setField(index, "slotDurationMinutes", 30);
+            service = new AppointmentServiceImpl(appointments, stub(PatientRepository.class), doctors, schedules,
+                    stub(UserRepository.class), stub(NotificationService.class), new AppointmentMapper(),
+                    stub(ClinicRepository.class), index, new BookingLockRegistry(256, 5000),
+                    stub(DailyStatsRecorder.class), new ClinicMetrics(new SimpleMeterRegistry()));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class H2 {
+        H2Database db;
+        SlotAvailabilityIndex index;
+        AppointmentService service;
+        Long doctorId;
+
+        @Setup
+        public void setUp() {
+            db = H2Database.open();
+            index = db.bean(SlotAvailabilityIndex.class);
+            service = db.bean(AppointmentService.class);
+            doctorId = db.data().doctors.get(0).getId();
+        }
+
+        @TearDown
+        public void tearDown() {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public List<AvailableSlotResponse> inMemoryCold(InMemory state) {
+        state.index.evictBefore(BOOKING_DAY.plusDays(1));
+        return state.service.getAvailableSlots(state.doctorId, BOOKING_DAY);
+    }
+
+    @Benchmark
+    public List<AvailableSlotResponse> inMemoryCached(InMemory state) {
+        return state.service.getAvailableSlots(state.doctorId, BOOKING_DAY);
+    }
+
+    @Benchmark
+    public List<AvailableSlotResponse> h2Cold(H2 state) {
+        state.index.evictBefore(BOOKING_DAY.plusDays(1));
+        return state.service.getAvailableSlots(state.doctorId, BOOKING_DAY);
+    }
+
+    @Benchmark
+    public List<AvailableSlotResponse> h2Cached(H2 state) {
+        return state.service.getAvailableSlots(state.doctorId, BOOKING_DAY);
+    }
+}
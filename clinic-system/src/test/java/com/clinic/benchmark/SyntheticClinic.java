@@ -0,0 +1,229 @@
+package com.clinic.benchmark;
+
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.repository.projection.StatsTotals;
+import jakarta.persistence.EntityManager;
+import org.mockito.Mockito;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SyntheticClinic — the data set behind every JMH benchmark.
+ *
+ * One clinic with DOCTORS doctors working 09:00–13:00 and 14:00–18:00 on
+ * weekdays (16 thirty-minute slots), PATIENTS patients, BOOKED_PER_DOCTOR
+ * appointments per doctor on BOOKING_DAY, a QUEUE_LENGTH queue per doctor
+ * today and yesterday, and STATS_DAYS of daily_clinic_stats rows.
+ *
+ * inMemory() numbers the graph for benchmarks whose repositories are stubs
+ * answering from these lists; unsaved() leaves ids to Hibernate so that
+ * H2Database can persist it.
+ */
+final class SyntheticClinic {
+
+    static final int DOCTORS = 20;
+    static final int PATIENTS = 1_000;
+    static final int BOOKED_PER_DOCTOR = 12;
+    static final int QUEUE_LENGTH = 40;
+    static final int DONE_PER_QUEUE = 10;
+    static final int STATS_DAYS = 365;
+
+    static final LocalDate TODAY = LocalDate.now();
+    static final LocalDate YESTERDAY = TODAY.minusDays(1);
+    /** A Monday, so every doctor works and every grid is full size. */
+    static final LocalDate BOOKING_DAY = TODAY.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private static final String[] SPECIALIZATIONS =
+            {"General Physician", "Paediatrics", "Dermatology", "Cardiology", "ENT"};
+
+    final Clinic clinic;
+    final List<User> users = new ArrayList<>();
+    final List<Doctor> doctors = new ArrayList<>();
+    final List<Patient> patients = new ArrayList<>();
+    final List<DoctorSchedule> schedules = new ArrayList<>();
+    final List<Appointment> appointments = new ArrayList<>();
+    final List<QueueEntry> queueEntries = new ArrayList<>();
+    final List<DailyClinicStats> stats = new ArrayList<>();
+
+    private SyntheticClinic() {
+        clinic = Clinic.builder().name("Benchmark Clinic").registrationCode("BENCH-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(DOCTORS).build();
+
+        for (int d = 0; d < DOCTORS; d++) {
+            User user = user("Doctor " + d, "doctor" + d, Role.DOCTOR, d);
+            Doctor doctor = Doctor.builder().user(user).clinic(clinic)
+                    .specialization(SPECIALIZATIONS[d % SPECIALIZATIONS.length])
+                    .consultationRoom("R" + (d + 1)).maxDailyAppointments(20).available(true).build();
+            doctors.add(doctor);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) continue;
+                schedules.add(schedule(doctor, day, LocalTime.of(9, 0), LocalTime.of(13, 0)));
+                schedules.add(schedule(doctor, day, LocalTime.of(14, 0), LocalTime.of(18, 0)));
+            }
+        }
+        for (int p = 0; p < PATIENTS; p++) {
+            User user = user("Patient " + p, "patient" + p, Role.PATIENT, DOCTORS + p);
+            patients.add(Patient.builder().user(user).clinic(clinic).gender(p % 2 == 0 ? "F" : "M")
+                    .dateOfBirth(LocalDate.of(1960 + p % 50, 1 + p % 12, 1 + p % 28)).emailConsent(true).build());
+        }
+
+        for (int d = 0; d < DOCTORS; d++) {
+            Doctor doctor = doctors.get(d);
+            for (int i = 0; i < BOOKED_PER_DOCTOR; i++) {
+                // every sixth booking is cancelled and leaves its slot free
+                AppointmentStatus status = i % 6 == 5 ? AppointmentStatus.CANCELLED : AppointmentStatus.CONFIRMED;
+                appointments.add(Appointment.builder().clinic(clinic).doctor(doctor)
+                        .patient(patients.get((d * BOOKED_PER_DOCTOR + i) % PATIENTS))
+                        .appointmentDate(BOOKING_DAY).appointmentTime(slotTime((d + i * 3) % 16))
+                        .status(status).reason("Follow-up " + i)
+                        .cancellationReason(status == AppointmentStatus.CANCELLED ? "Patient request" : null)
+                        .build());
+            }
+            for (int n = 1; n <= QUEUE_LENGTH; n++) {
+                Patient patient = patients.get((d * QUEUE_LENGTH + n - 1) % PATIENTS);
+                QueueStatus status = n <= DONE_PER_QUEUE ? QueueStatus.DONE
+                        : n == DONE_PER_QUEUE + 1 ? QueueStatus.IN_CONSULT : QueueStatus.WAITING;
+                queueEntries.add(queueEntry(doctor, patient, TODAY, n, status));
+                queueEntries.add(queueEntry(doctor, patient, YESTERDAY, n, QueueStatus.DONE));
+            }
+        }
+
+        for (int k = 0; k < STATS_DAYS; k++) {
+            stats.add(DailyClinicStats.builder().clinic(clinic).statDate(TODAY.minusDays(k))
+                    .pendingCount(2).confirmedCount(30 + k % 7).checkedInCount(3).completedCount(25 + k % 5)
+                    .cancelledCount(4).noShowCount(2).walkInCount(12).checkInCount(28)
+                    .waitedCount(40).waitSeconds(40L * (600 + k % 11 * 60)).build());
+        }
+    }
+
+    /** The graph with ids assigned; nothing is persisted. */
+    static SyntheticClinic inMemory() {
+        SyntheticClinic data = new SyntheticClinic();
+        data.clinic.setId(1L);
+        long id = 1;
+        for (User u : data.users) u.setId(id++);
+        for (Doctor d : data.doctors) d.setId(id++);
+        for (Patient p : data.patients) p.setId(id++);
+        for (DoctorSchedule s : data.schedules) s.setId(id++);
+        for (Appointment a : data.appointments) a.setId(id++);
+        for (QueueEntry q : data.queueEntries) q.setId(id++);
+        for (DailyClinicStats s : data.stats) s.setId(id++);
+        return data;
+    }
+
+    /** The graph without ids, ready for persist(). */
+    static SyntheticClinic unsaved() {
+        return new SyntheticClinic();
+    }
+
+    /** Inserts the whole graph; call inside a transaction. */
+    void persist(EntityManager em) {
+        em.persist(clinic);
+        users.forEach(em::persist);
+        doctors.forEach(em::persist);
+        patients.forEach(em::persist);
+        schedules.forEach(em::persist);
+        appointments.forEach(em::persist);
+        queueEntries.forEach(em::persist);
+        stats.forEach(em::persist);
+        em.flush();
+        em.clear();
+    }
+
+    // ─── Repository answers for the in-memory variants ───────────────────────
+
+    /** DoctorScheduleRepository.findByDoctorAndDayOfWeekAndActiveTrue */
+    List<DoctorSchedule> activeSchedules(Doctor doctor, DayOfWeek day) {
+        return schedules.stream()
+                .filter(s -> s.getDoctor().getId().equals(doctor.getId()) && s.getDayOfWeek() == day && s.isActive())
+                .toList();
+    }
+
+    /** AppointmentRepository.findBookedTimes */
+    List<LocalTime> bookedTimes(Doctor doctor, LocalDate date) {
+        return appointments.stream()
+                .filter(a -> a.getDoctor().getId().equals(doctor.getId()) && a.getAppointmentDate().equals(date)
+                        && a.getStatus().holdsSlot())
+                .map(Appointment::getAppointmentTime)
+                .toList();
+    }
+
+    /** QueueEntryRepository.findByDoctorIdAndQueueDateOrderByQueueNumberAsc */
+    List<QueueEntry> queue(Long doctorId, LocalDate date) {
+        return queueEntries.stream()
+                .filter(q -> q.getDoctor().getId().equals(doctorId) && q.getQueueDate().equals(date))
+                .sorted(Comparator.comparingInt(QueueEntry::getQueueNumber))
+                .toList();
+    }
+
+    /** DailyClinicStatsRepository.sumBetween */
+    StatsTotals totals(LocalDate from, LocalDate to) {
+        long[] sum = new long[10];
+        for (DailyClinicStats s : stats) {
+            if (s.getStatDate().isBefore(from) || s.getStatDate().isAfter(to)) continue;
+            sum[0] += s.getPendingCount();
+            sum[1] += s.getConfirmedCount();
+            sum[2] += s.getCheckedInCount();
+            sum[3] += s.getCompletedCount();
+            sum[4] += s.getCancelledCount();
+            sum[5] += s.getNoShowCount();
+            sum[6] += s.getWalkInCount();
+            sum[7] += s.getCheckInCount();
+            sum[8] += s.getWaitedCount();
+            sum[9] += s.getWaitSeconds();
+        }
+        return new StatsTotals(sum[0], sum[1], sum[2], sum[3], sum[4], sum[5], sum[6], sum[7], sum[8], sum[9]);
+    }
+
+    /** Last WAITING entry in a doctor's queue today — the patient with the most people ahead. */
+    QueueEntry lastWaiting(Doctor doctor) {
+        List<QueueEntry> queue = queue(doctor.getId(), TODAY);
+        return queue.get(queue.size() - 1);
+    }
+
+    /** Mockito stub with no invocation recording, cheap enough to sit on a measured path. */
+    static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    // ─── Builders ─────────────────────────────────────────────────────────────
+
+    private User user(String name, String login, Role role, int n) {
+        User user = User.builder().fullName(name).email(login + "@bench.test").password("x")
+                .phone(String.format("98%08d", n)).role(role).clinic(clinic).enabled(true).build();
+        users.add(user);
+        return user;
+    }
+
+    private static DoctorSchedule schedule(Doctor doctor, DayOfWeek day, LocalTime start, LocalTime end) {
+        return DoctorSchedule.builder().doctor(doctor).dayOfWeek(day).startTime(start).endTime(end).active(true).build();
+    }
+
+    private QueueEntry queueEntry(Doctor doctor, Patient patient, LocalDate date, int number, QueueStatus status) {
+        QueueEntry entry = QueueEntry.builder().clinic(clinic).doctor(doctor).patient(patient)
+                .queueDate(date).queueNumber(number).status(status).walkIn(number % 4 == 0)
+                .checkInTime(date.atTime(8, 0).plusMinutes(number * 3L)).build();
+        if (status != QueueStatus.WAITING) {
+            entry.setConsultStartTime(date.atTime(9, 0).plusMinutes(number * 12L));
+        }
+        if (status == QueueStatus.DONE) {
+            entry.setConsultEndTime(entry.getConsultStartTime().plusMinutes(10 + number % 5));
+        }
+        return entry;
+    }
+
+    /** Slot k of a working day: 0–7 in the morning session, 8–15 in the afternoon. */
+    private static LocalTime slotTime(int k) {
+        return k < 8 ? LocalTime.of(9, 0).plusMinutes(30L * k) : LocalTime.of(14, 0).plusMinutes(30L * (k - 8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.clinic.service;
+
+import com.clinic.dto.response.DailyReportResponse;
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.service.impl.AdminReportServiceImpl;
+import com.clinic.service.support.DailyStatsRebuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * AdminReportServiceTest — reports read from daily_clinic_stats after a
+ * DailyStatsRebuilder backfill, run against H2.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AdminReportServiceImpl.class, DailyStatsRebuilder.class})
+class AdminReportServiceTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private AdminReportService reportService;
+    @Autowired private DailyStatsRebuilder rebuilder;
+
+    private final LocalDate day1 = LocalDate.of(2026, 3, 2);
+    private final LocalDate day2 = day1.plusDays(1);
+
+    private Clinic clinic;
+    private Doctor doctor;
+    private Patient patient;
+    private int queueNumber;
+
+    @BeforeEach
+    void setUp() {
+        clinic = em.persist(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        User doctorUser = em.persist(User.builder().fullName("Priya Singh").email("priya@test.com")
+                .password("x").phone("9800000001").role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+        doctor = em.persist(Doctor.builder().user(doctorUser).clinic(clinic)
+                .specialization("General Physician").maxDailyAppointments(20).available(true).build());
+        User patientUser = em.persist(User.builder().fullName("Ram Thapa").email("ram@test.com")
+                .password("x").phone("9800000002").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+        patient = em.persist(Patient.builder().user(patientUser).clinic(clinic).emailConsent(true).build());
+
+        appointment(day1, 9, AppointmentStatus.COMPLETED);
+        appointment(day1, 10, AppointmentStatus.CANCELLED);
+        appointment(day2, 9, AppointmentStatus.COMPLETED);
+        appointment(day2, 10, AppointmentStatus.NO_SHOW);
+        appointment(day2, 11, AppointmentStatus.CONFIRMED);
+
+        // day 1: one patient waited 10 min; day 2: three waited 30 min, one never called
+        queueEntry(day1, 10, false);
+        queueEntry(day2, 30, true);
+        queueEntry(day2, 30, false);
+        queueEntry(day2, 30, false);
+        queueEntry(day2, -1, true);
+        em.flush();
+        em.clear();
+
+        assertThat(rebuilder.rebuild(day1, day2)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Range report sums counts and weights average wait by patient count")
+    void dateRangeReportAggregatesAcrossDays() {
+        DailyReportResponse report = reportService.getDateRangeReport(day1, day2);
+
+        assertThat(report.getTotalAppointments()).isEqualTo(5);
+        assertThat(report.getCompletedAppointments()).isEqualTo(2);
+        assertThat(report.getCancelledAppointments()).isEqualTo(1);
+        assertThat(report.getNoShowAppointments()).isEqualTo(1);
+        assertThat(report.getConfirmedAppointments()).isEqualTo(1);
+        assertThat(report.getTotalQueueEntries()).isEqualTo(5);
+        assertThat(report.getWalkInCount()).isEqualTo(2);
+        assertThat(report.getAppointmentCheckIns()).isEqualTo(3);
+        // (10 + 30 + 30 + 30) / 4, not the mean of the daily averages (20)
+        assertThat(report.getAvgWaitTimeMinutes()).isEqualTo(25.0);
+    }
+
+    @Test
+    @DisplayName("Daily report covers only its own date")
+    void dailyReportCoversOneDay() {
+        DailyReportResponse report = reportService.getDailyReport(day1);
+
+        assertThat(report.getTotalAppointments()).isEqualTo(2);
+        assertThat(report.getTotalQueueEntries()).isEqualTo(1);
+        assertThat(report.getAvgWaitTimeMinutes()).isEqualTo(10.0);
+    }
+
+    private void appointment(LocalDate date, int hour, AppointmentStatus status) {
+        em.persist(Appointment.builder().clinic(clinic).patient(patient).doctor(doctor)
+                .appointmentDate(date).appointmentTime(LocalTime.of(hour, 0)).status(status).build());
+    }
+
+    /** waitMinutes < 0 leaves the entry without a consult start time. */
+    private void queueEntry(LocalDate date, int waitMinutes, boolean walkIn) {
+        LocalDateTime checkIn = date.atTime(9, 0);
+        em.persist(QueueEntry.builder().clinic(clinic).doctor(doctor).patient(patient)
+                .queueDate(date).queueNumber(++queueNumber)
+                .status(waitMinutes < 0 ? QueueStatus.WAITING : QueueStatus.DONE)
+                .checkInTime(checkIn)
+                .consultStartTime(waitMinutes < 0 ? null : checkIn.plusMinutes(waitMinutes))
+                .walkIn(walkIn).build());
+    }
+}
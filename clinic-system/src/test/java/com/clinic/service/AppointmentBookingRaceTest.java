@@ -0,0 +1,154 @@
+package com.clinic.service;
+
+import com.clinic.dto.request.AppointmentBookRequest;
+import com.clinic.exception.AppointmentConflictException;
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.repository.*;
+import com.clinic.service.impl.AppointmentServiceImpl;
+import com.clinic.service.support.BookingLockRegistry;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import com.clinic.util.AppointmentMapper;
+import com.clinic.util.ClinicContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * AppointmentBookingRaceTest — two patients booking the same slot at the same
+ * moment, run against H2 with real transactions: exactly one booking wins,
+ * both through the in-JVM booking lock and through the
+ * uk_appointment_active_slot backstop alone.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AppointmentServiceImpl.class, AppointmentMapper.class, BookingLockRegistry.class,
+        ClinicMetrics.class, SimpleMeterRegistry.class})
+class AppointmentBookingRaceTest {
+
+    @Autowired private AppointmentService appointmentService;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ClinicRepository clinicRepository;
+
+    @SpyBean private BookingLockRegistry bookingLocks;
+    @MockBean private NotificationService notificationService;
+    @MockBean private SlotAvailabilityIndex slotIndex;
+    @MockBean private DailyStatsRecorder dailyStats;
+
+    private final LocalDate date = LocalDate.now().plusDays(7);
+    private final LocalTime time = LocalTime.of(9, 0);
+
+    private Clinic clinic;
+    private Doctor doctor;
+    private final List<Long> patientUserIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clinic = clinicRepository.save(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        User doctorUser = userRepository.save(User.builder().fullName("Priya Singh").email("priya@test.com")
+                .password("x").phone("9800000001").role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+        doctor = doctorRepository.save(Doctor.builder().user(doctorUser).clinic(clinic)
+                .specialization("General Physician").maxDailyAppointments(20).available(true).build());
+        for (int i = 0; i < 2; i++) {
+            User user = userRepository.save(User.builder().fullName("Patient " + i).email("p" + i + "@test.com")
+                    .password("x").phone("980000001" + i).role(Role.PATIENT).clinic(clinic).enabled(true).build());
+            patientRepository.save(Patient.builder().user(user).clinic(clinic).emailConsent(true).build());
+            patientUserIds.add(user.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        clinicRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings of one slot: the booking lock admits exactly one")
+    void bookingLockAdmitsOne() throws Exception {
+        assertExactlyOneBooks(raceForSlot());
+    }
+
+    @Test
+    @DisplayName("Without the booking lock (another node) the unique constraint still admits exactly one")
+    void uniqueConstraintAdmitsOne() throws Exception {
+        // Both bookings pass the lock together, as if they ran on different nodes
+        CyclicBarrier bothAdmitted = new CyclicBarrier(2);
+        doAnswer(inv -> {
+            bothAdmitted.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bookingLocks).lockForTransaction(any(), any());
+
+        assertExactlyOneBooks(raceForSlot());
+    }
+
+    /** Books the same slot for both patients at once; returns each attempt's failure, or null. */
+    private List<Throwable> raceForSlot() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Throwable>> attempts = new ArrayList<>();
+            for (Long userId : patientUserIds) {
+                attempts.add(pool.submit(() -> {
+                    start.await();
+                    ClinicContextHolder.setClinic(clinic);
+                    try {
+                        appointmentService.bookAppointment(userId, AppointmentBookRequest.builder()
+                                .doctorId(doctor.getId()).appointmentDate(date).appointmentTime(time).build());
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    } finally {
+                        ClinicContextHolder.clear();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Throwable> attempt : attempts) {
+                failures.add(attempt.get(30, TimeUnit.SECONDS));
+            }
+            return failures;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void assertExactlyOneBooks(List<Throwable> failures) {
+        assertThat(failures).filteredOn(f -> f == null).hasSize(1);
+        assertThat(failures).filteredOn(f -> f != null).singleElement()
+                .isInstanceOf(AppointmentConflictException.class);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,210 @@
+package com.clinic.service;
+
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.repository.*;
+import com.clinic.scheduler.AppointmentReminderScheduler;
+import com.clinic.service.impl.EmailNotificationServiceImpl;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.NotificationOutbox;
+import com.clinic.service.support.QueueNumberAllocator;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * AppointmentReminderSchedulerTest — the scheduler runs against H2 with real
+ * transactions and a mocked mail server: reminders in keyset chunks of
+ * clinic.reminder.batch-size, one send call per chunk, and the bulk
+ * markRemindersSent for the reminders that went out; no-shows through the
+ * bulk markNoShow and its daily_clinic_stats deltas.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "clinic.reminder.batch-size=2")
+@Import({AppointmentReminderScheduler.class, EmailNotificationServiceImpl.class, NotificationOutbox.class,
+        DailyStatsRecorder.class, ClinicMetrics.class, SimpleMeterRegistry.class})
+class AppointmentReminderSchedulerTest {
+
+    @Autowired private AppointmentReminderScheduler scheduler;
+    @Autowired private AppointmentRepository appointmentRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private DailyClinicStatsRepository statsRepository;
+    @Autowired private DailyStatsRecorder dailyStats;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ClinicRepository clinicRepository;
+
+    @MockBean private JavaMailSender mailSender;
+    @MockBean(name = "notificationExecutor") private TaskExecutor notificationExecutor;
+    @MockBean private SlotAvailabilityIndex slotIndex;
+    @MockBean private QueueNumberAllocator queueNumbers;
+
+    private Clinic clinic;
+    private final List<Doctor> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clinic = clinicRepository.save(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        for (int i = 0; i < 2; i++) {
+            User user = userRepository.save(User.builder().fullName("Doctor " + i).email("d" + i + "@test.com")
+                    .password("x").phone("980000000" + i).role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+            doctors.add(doctorRepository.save(Doctor.builder().user(user).clinic(clinic)
+                    .specialization("General Physician").maxDailyAppointments(20).available(true).build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        statsRepository.deleteAllInBatch();
+        appointmentRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        clinicRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Reminders go out in keyset chunks, one send per chunk; only delivered ones are flagged")
+    void remindersAreChunkedAndFlaggedInBulk() {
+        LocalDateTime due = LocalDateTime.now().plusHours(24).truncatedTo(ChronoUnit.MINUTES);
+        // a0 and a1 share a start time: the (reminderDueAt, id) cursor must not skip either
+        Appointment a0 = confirmed(0, due, "p0@test.com", true);
+        Appointment a1 = confirmed(1, due, "p1@test.com", true);
+        Appointment a2 = confirmed(0, due.plusMinutes(15), "p2@test.com", false);
+        Appointment a3 = confirmed(0, due.plusMinutes(30), "p3@test.com", true);
+        Appointment a4 = confirmed(0, due.plusMinutes(45), "p4@test.com", true);
+        Appointment later = confirmed(0, due.plusHours(6), "p5@test.com", true);
+
+        doAnswer(inv -> {
+            for (Object arg : inv.getArguments()) {
+                SimpleMailMessage m = (SimpleMailMessage) arg;
+                if (m.getTo()[0].equals("p3@test.com")) {
+                    throw new MailSendException(Map.of(m, new MessagingException("mailbox unavailable")));
+                }
+            }
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        scheduler.sendReminders();
+
+        // chunks [a0, a1], [a2 (no consent), a3], [a4]
+        ArgumentCaptor<SimpleMailMessage[]> sends = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender, times(3)).send(sends.capture());
+        assertThat(sends.getAllValues()).extracting(batch -> Arrays.stream(batch)
+                        .map(m -> m.getTo()[0]).toList())
+                .containsExactly(List.of("p0@test.com", "p1@test.com"), List.of("p3@test.com"), List.of("p4@test.com"));
+
+        for (Appointment a : List.of(a0, a1, a2, a4)) {
+            Appointment reloaded = appointmentRepository.findById(a.getId()).orElseThrow();
+            assertThat(reloaded.isReminderSent()).as("appointment %d", a.getId()).isTrue();
+            assertThat(reloaded.getReminderDueAt()).as("appointment %d", a.getId()).isNull();
+        }
+        for (Appointment a : List.of(a3, later)) {
+            Appointment reloaded = appointmentRepository.findById(a.getId()).orElseThrow();
+            assertThat(reloaded.isReminderSent()).as("appointment %d", a.getId()).isFalse();
+            assertThat(reloaded.getReminderDueAt()).as("appointment %d", a.getId()).isEqualTo(a.getStartsAt());
+        }
+
+        assertThat(notificationRepository.findAll())
+                .extracting(n -> n.getUser().getId(), Notification::isSuccess)
+                .containsExactlyInAnyOrder(tuple(userId(a0), true), tuple(userId(a1), true),
+                        tuple(userId(a3), false), tuple(userId(a4), true));
+    }
+
+    @Test
+    @DisplayName("Past CONFIRMED appointments become NO_SHOW in bulk, releasing the slot and adjusting daily stats")
+    void pastConfirmedAppointmentsAreMarkedNoShow() {
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(9, 0);
+        Appointment missed1 = confirmed(0, yesterday, "p0@test.com", true);
+        Appointment missed2 = confirmed(1, yesterday, "p1@test.com", true);
+        Appointment seen = appointment(0, yesterday.plusMinutes(30), "p2@test.com", AppointmentStatus.COMPLETED);
+        Appointment upcoming = confirmed(0, LocalDate.now().plusDays(1).atTime(9, 0), "p3@test.com", true);
+        for (Appointment a : List.of(missed1, missed2, seen, upcoming)) {
+            dailyStats.appointmentCreated(a);
+        }
+
+        scheduler.markNoShows();
+
+        for (Appointment a : List.of(missed1, missed2)) {
+            Appointment reloaded = appointmentRepository.findById(a.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(AppointmentStatus.NO_SHOW);
+            assertThat(reloaded.getSlotHeld()).isNull();
+            assertThat(reloaded.getReminderDueAt()).isNull();
+        }
+        assertThat(appointmentRepository.findById(seen.getId()).orElseThrow().getStatus())
+                .isEqualTo(AppointmentStatus.COMPLETED);
+        Appointment stillUpcoming = appointmentRepository.findById(upcoming.getId()).orElseThrow();
+        assertThat(stillUpcoming.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+        assertThat(stillUpcoming.getSlotHeld()).isTrue();
+
+        DailyClinicStats day = statsRepository.findAll().stream()
+                .filter(s -> s.getStatDate().equals(yesterday.toLocalDate())).findFirst().orElseThrow();
+        assertThat(day.getConfirmedCount()).isZero();
+        assertThat(day.getNoShowCount()).isEqualTo(2);
+        assertThat(day.getCompletedCount()).isEqualTo(1);
+
+        verify(slotIndex).evictBefore(LocalDate.now());
+        verify(queueNumbers).evictBefore(LocalDate.now());
+    }
+
+    private static Long userId(Appointment a) {
+        return a.getPatient().getUser().getId();
+    }
+
+    private Appointment confirmed(int doctor, LocalDateTime startsAt, String email, boolean emailConsent) {
+        return appointment(doctor, startsAt, email, emailConsent, AppointmentStatus.CONFIRMED);
+    }
+
+    private Appointment appointment(int doctor, LocalDateTime startsAt, String email, AppointmentStatus status) {
+        return appointment(doctor, startsAt, email, true, status);
+    }
+
+    private Appointment appointment(int doctor, LocalDateTime startsAt, String email, boolean emailConsent,
+                                    AppointmentStatus status) {
+        User user = userRepository.save(User.builder().fullName(email).email(email).password("x")
+                .phone("98" + Math.abs(email.hashCode() % 100000000)).role(Role.PATIENT)
+                .clinic(clinic).enabled(true).build());
+        Patient patient = patientRepository.save(Patient.builder().user(user).clinic(clinic)
+                .emailConsent(emailConsent).build());
+        return appointmentRepository.save(Appointment.builder().clinic(clinic).patient(patient)
+                .doctor(doctors.get(doctor)).appointmentDate(startsAt.toLocalDate())
+                .appointmentTime(startsAt.toLocalTime()).status(status).build());
+    }
+}
@@ -0,0 +1,193 @@
+package com.clinic.service;
+
+import com.clinic.dto.response.AppointmentPage;
+import com.clinic.dto.response.AppointmentResponse;
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.AppointmentStatus;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.service.impl.AppointmentServiceImpl;
+import com.clinic.service.support.BookingLockRegistry;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.SlotAvailabilityIndex;
+import com.clinic.util.AppointmentExportWriter;
+import com.clinic.util.AppointmentMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * AppointmentServiceQueryCountTest — statement-count regression tests for the
+ * appointment list views, run against H2.
+ *
+ * Each list is projected into AppointmentResponse by one joined query, so
+ * the count must not grow with the number of rows (no lazy patient, doctor
+ * or user loads per appointment).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AppointmentServiceImpl.class, AppointmentMapper.class, ClinicMetrics.class, SimpleMeterRegistry.class})
+class AppointmentServiceQueryCountTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private AppointmentService appointmentService;
+
+    @MockBean private NotificationService notificationService;
+    @MockBean private SlotAvailabilityIndex slotIndex;
+    @MockBean private BookingLockRegistry bookingLocks;
+    @MockBean private DailyStatsRecorder dailyStats;
+
+    private static final int HISTORY_PAGE_SIZE = 20;   // clinic.appointment.history-page-size
+
+    private Statistics statistics;
+    private Clinic clinic;
+    private Doctor doctor;
+    private User patientUser;
+    private Patient patient;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+
+        clinic = em.persist(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        User doctorUser = em.persist(User.builder().fullName("Priya Singh").email("priya@test.com")
+                .password("x").phone("9800000001").role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+        doctor = em.persist(Doctor.builder().user(doctorUser).clinic(clinic)
+                .specialization("General Physician").maxDailyAppointments(100).available(true).build());
+        patientUser = em.persist(User.builder().fullName("Ram Thapa").email("ram@test.com")
+                .password("x").phone("9800000002").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+        patient = em.persist(Patient.builder().user(patientUser).clinic(clinic).emailConsent(true).build());
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {3, 40})
+    @DisplayName("Patient history (first page) and upcoming lists: patient lookup + one query")
+    void patientListsRunConstantStatements(int size) {
+        seedAppointments(size);
+
+        List<AppointmentResponse> history =
+                appointmentService.getPatientAppointments(patientUser.getId(), null).getAppointments();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(history).hasSize(Math.min(size, HISTORY_PAGE_SIZE));
+        assertThat(history.get(0).getPatientName()).isEqualTo("Ram Thapa");
+        assertThat(history.get(0).getDoctorName()).isEqualTo("Priya Singh");
+        assertThat(history.get(0).getStatus()).isEqualTo("CONFIRMED");
+
+        em.clear();
+        statistics.clear();
+        assertThat(appointmentService.getUpcomingAppointments(patientUser.getId())).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {3, 40})
+    @DisplayName("Doctor daily/weekly schedules and the admin range view: one lookup + one query")
+    void scheduleListsRunConstantStatements(int size) {
+        seedAppointments(size);
+
+        assertThat(appointmentService.getDoctorWeeklySchedule(doctor.getId(), monday)).hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        em.clear();
+        statistics.clear();
+        List<AppointmentResponse> day = appointmentService.getDoctorDailySchedule(doctor.getId(), monday);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(day).isNotEmpty().allMatch(a -> a.getAppointmentDate().equals(monday));
+
+        em.clear();
+        statistics.clear();
+        assertThat(appointmentService.getAppointmentsByDateRange(clinic.getId(), monday, monday.plusDays(6)))
+                .hasSize(size);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("History pages walk the whole history newest first, each page at the same cost")
+    void historyPagesCoverEveryAppointmentOnce() {
+        seedAppointments(45);
+
+        List<AppointmentResponse> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            em.clear();
+            statistics.clear();
+            AppointmentPage page = appointmentService.getPatientAppointments(patientUser.getId(), cursor);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            seen.addAll(page.getAppointments());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).extracting(AppointmentResponse::getId).doesNotHaveDuplicates().hasSize(45);
+        assertThat(seen).isSortedAccordingTo(Comparator
+                .comparing(AppointmentResponse::getAppointmentDate)
+                .thenComparing(AppointmentResponse::getAppointmentTime)
+                .thenComparing(AppointmentResponse::getId).reversed());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> appointmentService.getPatientAppointments(patientUser.getId(), "not-a-cursor"));
+    }
+
+    @ParameterizedTest(name = "{0} appointments")
+    @ValueSource(ints = {3, 40})
+    @DisplayName("CSV export streams every row, oldest first, from one query")
+    void exportStreamsFromOneQuery(int size) {
+        seedAppointments(size);
+
+        StringWriter csv = new StringWriter();
+        AppointmentExportWriter writer =
+                new AppointmentExportWriter(AppointmentExportWriter.Format.CSV, csv, new ObjectMapper());
+        writer.begin();
+        long rows = appointmentService.exportAppointmentsByDateRange(
+                clinic.getId(), monday, monday.plusDays(6), writer);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(rows).isEqualTo(size);
+        List<String> lines = csv.toString().lines().toList();
+        assertThat(lines).hasSize(size + 1);
+        assertThat(lines.get(0)).startsWith("id,appointment_date,appointment_time,status");
+        assertThat(lines.get(1)).contains(monday + ",09:00,CONFIRMED").contains("Ram Thapa,");
+    }
+
+    /** size appointments over Monday–Friday of next week, 16 per day */
+    private void seedAppointments(int size) {
+        for (int i = 0; i < size; i++) {
+            em.persist(Appointment.builder().clinic(clinic).doctor(doctor).patient(patient)
+                    .appointmentDate(monday.plusDays(i / 16))
+                    .appointmentTime(LocalTime.of(9, 0).plusMinutes(i % 16 * 30))
+                    .status(AppointmentStatus.CONFIRMED).reason("Check-up").build());
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+}
@@ -7,14 +7,23 @@ import com.clinic.model.entity.*;
 import com.clinic.model.enums.AppointmentStatus;
 import com.clinic.model.enums.Role;
 import com.clinic.repository.*;
+import com.clinic.repository.projection.DoctorDayLoad;
 import com.clinic.service.impl.AppointmentServiceImpl;
+import com.clinic.service.support.BookingLockRegistry;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.SlotAvailabilityIndex;
 import com.clinic.util.AppointmentMapper;
+import com.clinic.util.ClinicContextHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
@@ -35,6 +44,7 @@ import static org.mockito.Mockito.*;
  *  1. Successful appointment booking
  *  2. BR-001: Double booking prevention
  *  3. BR-003: Daily cap enforcement
+ * each also checking the clinic.booking outcome it records.
  */
 @ExtendWith(MockitoExtension.class)
 class AppointmentServiceTest {
@@ -46,6 +56,11 @@ class AppointmentServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private NotificationService notificationService;
     @Mock private AppointmentMapper appointmentMapper;
+    @Mock private SlotAvailabilityIndex slotIndex;
+    @Mock private DailyStatsRecorder dailyStats;
+    @Spy  private BookingLockRegistry bookingLocks = new BookingLockRegistry(16, 1000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy  private ClinicMetrics metrics = new ClinicMetrics(registry);
 
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
@@ -65,6 +80,13 @@ class AppointmentServiceTest {
                 .email("priya@clinic.com").role(Role.DOCTOR).build();
         doctor = Doctor.builder().id(1L).user(doctorUser)
                 .specialization("General Physician").maxDailyAppointments(20).build();
+
+        ClinicContextHolder.setClinic(Clinic.builder().id(1L).name("Test Clinic").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClinicContextHolder.clear();
     }
 
     @Test
@@ -80,17 +102,18 @@ class AppointmentServiceTest {
 
         when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
-        when(appointmentRepository.existsConflict(
+        when(appointmentRepository.findDayLoad(
                 eq(doctor), any(LocalDate.class), any(LocalTime.class), isNull()))
-                .thenReturn(true); // slot already taken
+                .thenReturn(new DoctorDayLoad(3L, 1L)); // slot already taken
 
         // When / Then
         assertThatThrownBy(() -> appointmentService.bookAppointment(1L, request))
                 .isInstanceOf(AppointmentConflictException.class)
                 .hasMessageContaining("already booked");
 
-        verify(appointmentRepository, never()).save(any());
+        verify(appointmentRepository, never()).saveAndFlush(any());
         verify(notificationService, never()).sendAppointmentConfirmation(any());
+        assertThat(bookings("conflict")).isEqualTo(1);
     }
 
     @Test
@@ -104,13 +127,13 @@ class AppointmentServiceTest {
 
         when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
-        when(appointmentRepository.existsConflict(any(), any(), any(), any())).thenReturn(false);
-        when(appointmentRepository.countByDoctorAndAppointmentDateAndStatusIn(
-                any(), any(), any())).thenReturn(20L); // at max capacity
+        when(appointmentRepository.findDayLoad(any(), any(), any(), any()))
+                .thenReturn(new DoctorDayLoad(20L, 0L)); // at max capacity
 
         assertThatThrownBy(() -> appointmentService.bookAppointment(1L, request))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("maximum appointments");
+        assertThat(bookings("rejected")).isEqualTo(1);
     }
 
     @Test
@@ -134,16 +157,24 @@ class AppointmentServiceTest {
 
         when(patientRepository.findByUserId(1L)).thenReturn(Optional.of(patient));
         when(doctorRepository.findById(1L)).thenReturn(Optional.of(doctor));
-        when(appointmentRepository.existsConflict(any(), any(), any(), any())).thenReturn(false);
-        when(appointmentRepository.countByDoctorAndAppointmentDateAndStatusIn(any(), any(), any()))
-                .thenReturn(5L);
-        when(appointmentRepository.save(any(Appointment.class))).thenReturn(savedAppt);
+        when(appointmentRepository.findDayLoad(any(), any(), any(), any()))
+                .thenReturn(new DoctorDayLoad(5L, 0L));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenReturn(savedAppt);
         when(appointmentMapper.toResponse(savedAppt)).thenReturn(expectedResponse);
 
         AppointmentResponse result = appointmentService.bookAppointment(1L, request);
 
         assertThat(result.getStatus()).isEqualTo("CONFIRMED");
-        verify(appointmentRepository).save(any(Appointment.class));
+        verify(appointmentRepository).saveAndFlush(any(Appointment.class));
         verify(notificationService).sendAppointmentConfirmation(savedAppt);
+        verify(slotIndex).markBooked(1L, request.getAppointmentDate(), request.getAppointmentTime());
+        assertThat(bookings("success")).isEqualTo(1);
+        assertThat(registry.get("clinic.booking.phase").tag("phase", "persist").timer().count()).isEqualTo(1);
+    }
+
+    private long bookings(String outcome) {
+        return registry.get("clinic.booking")
+                .tags("clinic", "1", "operation", "book", "outcome", outcome)
+                .timer().count();
     }
 }
@@ -6,6 +6,7 @@ import com.clinic.exception.DuplicateResourceException;
 import com.clinic.model.entity.Clinic;
 import com.clinic.model.enums.ClinicStatus;
 import com.clinic.repository.*;
+import com.clinic.security.ClinicStatusCache;
 import com.clinic.service.impl.ClinicServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,7 @@ class ClinicServiceTest {
     @Mock private AppointmentRepository appointmentRepository;
     @Mock private NotificationRepository notificationRepository;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private ClinicStatusCache clinicCache;
 
     @InjectMocks
     private ClinicServiceImpl clinicService;
@@ -123,6 +125,7 @@ class ClinicServiceTest {
 
         assertThat(response.getStatus()).isEqualTo("SUSPENDED");
         assertThat(clinic.getNotes()).contains("SUSPENDED").contains("Billing overdue");
+        verify(clinicCache).evict(1L);
     }
 
     @Test
@@ -0,0 +1,82 @@
+package com.clinic.service;
+
+import com.clinic.repository.QueueEntryRepository;
+import com.clinic.repository.projection.ConsultSample;
+import com.clinic.service.support.ConsultDurationEstimator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * ConsultDurationEstimatorTest — per-doctor wait-time estimates (QR-003).
+ */
+@ExtendWith(MockitoExtension.class)
+class ConsultDurationEstimatorTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2024, 5, 6, 9, 0);
+
+    @Mock private QueueEntryRepository queueEntryRepository;
+
+    private ConsultDurationEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        estimator = new ConsultDurationEstimator(queueEntryRepository, 15, 0.2, 120, 14);
+    }
+
+    @Test
+    @DisplayName("Each doctor converges to their own pace; unknown doctors get the default")
+    void learnsPerDoctorPace() {
+        for (int i = 0; i < 20; i++) {
+            consult(1L, 6);    // quick GP
+            consult(2L, 30);   // slow specialist
+        }
+
+        assertThat(estimator.minutesPerPatient(1L)).isCloseTo(6, within(0.5));
+        assertThat(estimator.minutesPerPatient(2L)).isCloseTo(30, within(0.5));
+        assertThat(estimator.estimateWaitMinutes(1L, 4)).isEqualTo(24);
+        assertThat(estimator.estimateWaitMinutes(3L, 4)).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("A few consults replace the default; implausible durations are ignored")
+    void warmUpAndOutliers() {
+        consult(1L, 8);
+        consult(1L, 8);
+        consult(1L, 8);
+        assertThat(estimator.minutesPerPatient(1L)).isCloseTo(9.75, within(0.01));   // (15 + 3×8) / 4
+
+        double before = estimator.minutesPerPatient(1L);
+        consult(1L, 400);   // left open over lunch
+        estimator.record(1L, NINE, NINE.minusMinutes(5));
+        estimator.record(1L, NINE, null);
+        assertThat(estimator.minutesPerPatient(1L)).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Warm start replays recent history")
+    void warmStartReplaysHistory() {
+        when(queueEntryRepository.findConsultsSince(any())).thenReturn(List.of(
+                new ConsultSample(1L, NINE, NINE.plusMinutes(10)),
+                new ConsultSample(1L, NINE.plusMinutes(10), NINE.plusMinutes(20)),
+                new ConsultSample(1L, NINE.plusMinutes(20), NINE.plusMinutes(30))));
+
+        estimator.warmStart();
+
+        assertThat(estimator.minutesPerPatient(1L)).isCloseTo(11.25, within(0.01));   // (15 + 3×10) / 4
+    }
+
+    private void consult(Long doctorId, int minutes) {
+        estimator.record(doctorId, NINE, NINE.plusMinutes(minutes));
+    }
+}
@@ -0,0 +1,129 @@
+package com.clinic.service;
+
+import com.clinic.model.entity.Clinic;
+import com.clinic.model.entity.Notification;
+import com.clinic.model.entity.OutboxMessage;
+import com.clinic.model.entity.User;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.repository.NotificationRepository;
+import com.clinic.repository.OutboxMessageRepository;
+import com.clinic.service.support.NotificationOutbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * NotificationOutboxTest — outbox dispatch against H2 with a mocked mail server.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({NotificationOutbox.class, SimpleMeterRegistry.class})
+class NotificationOutboxTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private NotificationOutbox outbox;
+    @Autowired private OutboxMessageRepository outboxRepository;
+    @Autowired private NotificationRepository notificationRepository;
+
+    @MockBean private JavaMailSender mailSender;
+    @MockBean(name = "notificationExecutor") private TaskExecutor notificationExecutor;
+
+    private User ram;
+    private User sita;
+
+    @BeforeEach
+    void setUp() {
+        Clinic clinic = em.persist(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        ram = em.persist(User.builder().fullName("Ram Thapa").email("ram@test.com")
+                .password("x").phone("9800000002").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+        sita = em.persist(User.builder().fullName("Sita Rai").email("sita@test.com")
+                .password("x").phone("9800000003").role(Role.PATIENT).clinic(clinic).enabled(true).build());
+
+        outbox.enqueue(ram, "CONFIRMATION", "Appointment Confirmed", "See you soon");
+        outbox.enqueue(sita, "CONFIRMATION", "Appointment Confirmed", "See you soon");
+        outbox.enqueue(ram, "CANCELLATION", "Appointment Cancelled", "Cancelled");
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("A batch goes out in one send call; sent messages are audited and removed")
+    void drainSendsBatchOverOneConnection() {
+        assertThat(outbox.drain()).isEqualTo(3);
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(notificationRepository.findAll())
+                .hasSize(3)
+                .allMatch(Notification::isSuccess);
+    }
+
+    @Test
+    @DisplayName("A failed message is audited and kept for a later retry")
+    void failedMessageIsRetriedLater() {
+        doAnswer(inv -> {
+            SimpleMailMessage sitasMail = inv.getArgument(1);
+            throw new MailSendException(Map.of(sitasMail, new RuntimeException("mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        outbox.drain();
+        em.clear();
+
+        List<OutboxMessage> pending = outboxRepository.findAll();
+        assertThat(pending).singleElement().satisfies(m -> {
+            assertThat(m.getRecipient()).isEqualTo("sita@test.com");
+            assertThat(m.getAttempts()).isEqualTo(1);
+            assertThat(m.getLastError()).isEqualTo("mailbox unavailable");
+        });
+        assertThat(notificationRepository.findAll()).hasSize(3)
+                .filteredOn(n -> !n.isSuccess()).singleElement()
+                .satisfies(n -> assertThat(n.getErrorMessage()).isEqualTo("mailbox unavailable"));
+
+        // back-off: not due again in this run
+        assertThat(outbox.drain()).isZero();
+    }
+
+    @Test
+    @DisplayName("Of two identical messages only the one that failed is retried")
+    void identicalMessagesAreTrackedSeparately() {
+        outbox.enqueue(ram, "CONFIRMATION", "Appointment Confirmed", "See you soon");
+        em.flush();
+        // the first call takes one copy, the second the duplicate — which fails
+        doNothing().doAnswer(inv -> {
+            SimpleMailMessage duplicate = inv.getArgument(0);
+            throw new MailSendException(Map.of(duplicate, new RuntimeException("mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        outbox.drain();
+        em.clear();
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(m -> {
+            assertThat(m.getRecipient()).isEqualTo("ram@test.com");
+            assertThat(m.getType()).isEqualTo("CONFIRMATION");
+            assertThat(m.getAttempts()).isEqualTo(1);
+        });
+        assertThat(notificationRepository.findAll()).hasSize(4)
+                .filteredOn(n -> !n.isSuccess()).hasSize(1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.clinic.service;
+
+import com.clinic.dto.response.QueueBoardSnapshot;
+import com.clinic.dto.response.QueueBoardSnapshot.DoctorRow;
+import com.clinic.model.entity.Doctor;
+import com.clinic.model.entity.User;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.repository.DoctorRepository;
+import com.clinic.service.support.LiveQueueEntry;
+import com.clinic.service.support.QueueBoard;
+import com.clinic.service.support.QueueChangedEvent;
+import com.clinic.service.support.QueueEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * QueueBoardTest — the shared queue board snapshot.
+ *
+ * Key test scenarios:
+ *  1. current / next / waiting per doctor, queue numbers only
+ *  2. every read between two queue changes gets the same instance and ETag
+ *  3. a change in another clinic leaves the board alone
+ */
+@ExtendWith(MockitoExtension.class)
+class QueueBoardTest {
+
+    private static final Long CLINIC = 1L;
+    private static final Long DOCTOR = 10L;
+
+    @Mock private QueueEngine queueEngine;
+    @Mock private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private QueueBoard queueBoard;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(2L).fullName("Priya Singh").build();
+        Doctor doctor = Doctor.builder().id(DOCTOR).user(user)
+                .specialization("General Physician").consultationRoom("Room 1").build();
+        when(doctorRepository.findAvailableWithUserByClinicId(CLINIC)).thenReturn(List.of(doctor));
+    }
+
+    @Test
+    @DisplayName("Board row shows the number in consultation, the next number and the waiting count")
+    void rowSummarisesDoctorQueue() {
+        when(queueEngine.doctorQueue(DOCTOR)).thenReturn(List.of(
+                entry(1, QueueStatus.DONE), entry(2, QueueStatus.IN_CONSULT),
+                entry(3, QueueStatus.SKIPPED), entry(4, QueueStatus.WAITING), entry(5, QueueStatus.WAITING)));
+
+        DoctorRow row = queueBoard.snapshot(CLINIC).doctors().get(0);
+
+        assertThat(row.doctorName()).isEqualTo("Priya Singh");
+        assertThat(row.currentNumber()).isEqualTo(2);
+        assertThat(row.nextNumber()).isEqualTo(4);
+        assertThat(row.waiting()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Snapshot is shared until a queue change in the clinic, then rebuilt once")
+    void snapshotIsRebuiltOnlyOnQueueChange() {
+        when(queueEngine.doctorQueue(DOCTOR))
+                .thenReturn(List.of(entry(1, QueueStatus.WAITING)))
+                .thenReturn(List.of(entry(1, QueueStatus.IN_CONSULT)));
+
+        QueueBoardSnapshot first = queueBoard.snapshot(CLINIC);
+        assertThat(queueBoard.snapshot(CLINIC)).isSameAs(first);
+
+        queueBoard.onQueueChanged(new QueueChangedEvent(2L, 20L));
+        assertThat(queueBoard.snapshot(CLINIC)).isSameAs(first);
+
+        queueBoard.onQueueChanged(new QueueChangedEvent(CLINIC, DOCTOR));
+        QueueBoardSnapshot second = queueBoard.snapshot(CLINIC);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(second.doctors().get(0).currentNumber()).isEqualTo(1);
+        assertThat(queueBoard.snapshot(CLINIC)).isSameAs(second);
+
+        verify(queueEngine, times(2)).doctorQueue(DOCTOR);
+    }
+
+    private static LiveQueueEntry entry(int number, QueueStatus status) {
+        return new LiveQueueEntry((long) number, CLINIC, 100L + number, 200L + number, "Patient " + number,
+                "98000000" + number, DOCTOR, "Priya Singh", LocalDate.now(), number, status,
+                LocalDateTime.now(), null, null, false);
+    }
+}
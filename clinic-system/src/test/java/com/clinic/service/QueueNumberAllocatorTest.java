@@ -0,0 +1,86 @@
+package com.clinic.service;
+
+import com.clinic.model.entity.Doctor;
+import com.clinic.repository.QueueEntryRepository;
+import com.clinic.service.support.QueueNumberAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * QueueNumberAllocatorTest — QR-002 queue numbers under concurrent check-ins.
+ */
+@ExtendWith(MockitoExtension.class)
+class QueueNumberAllocatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Mock private QueueEntryRepository queueEntryRepository;
+
+    private QueueNumberAllocator allocator;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new QueueNumberAllocator(queueEntryRepository);
+        doctor = Doctor.builder().id(1L).build();
+    }
+
+    @Test
+    @DisplayName("Concurrent check-ins get distinct, consecutive numbers after the seeded maximum")
+    void concurrentNumbersAreDistinctAndConsecutive() throws Exception {
+        when(queueEntryRepository.nextQueueNumber(doctor, TODAY)).thenReturn(6);   // 5 already issued
+
+        int checkIns = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> numbers = new ArrayList<>();
+            for (int i = 0; i < checkIns; i++) {
+                numbers.add(pool.submit(() -> {
+                    start.await();
+                    return allocator.next(doctor, TODAY);
+                }));
+            }
+            start.countDown();
+            List<Integer> issued = new ArrayList<>();
+            for (Future<Integer> n : numbers) {
+                issued.add(n.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(issued).containsExactlyInAnyOrderElementsOf(
+                    IntStream.rangeClosed(6, 5 + checkIns).boxed().toList());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("The database is read once per doctor/day, and each day starts from its own maximum")
+    void seedsOncePerDoctorDay() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(queueEntryRepository.nextQueueNumber(eq(doctor), any())).thenReturn(1);
+
+        assertThat(allocator.next(doctor, TODAY)).isEqualTo(1);
+        assertThat(allocator.next(doctor, TODAY)).isEqualTo(2);
+        assertThat(allocator.next(doctor, tomorrow)).isEqualTo(1);
+        verify(queueEntryRepository, times(1)).nextQueueNumber(doctor, TODAY);
+
+        allocator.evictBefore(tomorrow);
+        when(queueEntryRepository.nextQueueNumber(doctor, TODAY)).thenReturn(3);
+        assertThat(allocator.next(doctor, TODAY)).isEqualTo(3);
+    }
+}
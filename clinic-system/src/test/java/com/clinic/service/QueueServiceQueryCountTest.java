@@ -0,0 +1,142 @@
+package com.clinic.service;
+
+import com.clinic.dto.response.QueueEntryResponse;
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.QueueStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.service.impl.QueueServiceImpl;
+import com.clinic.service.support.ClinicMetrics;
+import com.clinic.service.support.ConsultDurationEstimator;
+import com.clinic.service.support.DailyStatsRecorder;
+import com.clinic.service.support.QueueEngine;
+import com.clinic.service.support.QueueNumberAllocator;
+import com.clinic.util.QueueMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * QueueServiceQueryCountTest — statement-count regression tests for the
+ * live queue views, run against H2.
+ *
+ * getDoctorQueue backs every doctor dashboard refresh and admin queue-detail
+ * view, so it must cost the same number of statements for 3 patients as for 60.
+ * Today's queue is loaded into QueueEngine once and then served from memory.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({QueueServiceImpl.class, QueueMapper.class, QueueNumberAllocator.class, QueueEngine.class,
+        ConsultDurationEstimator.class, DailyStatsRecorder.class, ClinicMetrics.class, SimpleMeterRegistry.class})
+class QueueServiceQueryCountTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private QueueService queueService;
+
+    private Statistics statistics;
+    private Clinic clinic;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        clinic = em.persist(Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build());
+        User doctorUser = em.persist(User.builder().fullName("Priya Singh").email("priya@test.com")
+                .password("x").phone("9800000001").role(Role.DOCTOR).clinic(clinic).enabled(true).build());
+        doctor = em.persist(Doctor.builder().user(doctorUser).clinic(clinic)
+                .specialization("General Physician").maxDailyAppointments(20).available(true).build());
+    }
+
+    @ParameterizedTest(name = "{0} patients")
+    @ValueSource(ints = {3, 60})
+    @DisplayName("getDoctorQueue for today loads once, then runs no statements")
+    void liveQueueIsLoadedOnceThenServedFromMemory(int size) {
+        LocalDate today = LocalDate.now();
+        seedQueue(today, size);
+
+        List<QueueEntryResponse> cold = queueService.getDoctorQueue(doctor.getId(), today);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertPositions(cold, size);
+
+        statistics.clear();
+        List<QueueEntryResponse> warm = queueService.getDoctorQueue(doctor.getId(), today);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertPositions(warm, size);
+    }
+
+    @ParameterizedTest(name = "{0} patients")
+    @ValueSource(ints = {3, 60})
+    @DisplayName("getDoctorQueue for another date runs a constant number of statements")
+    void pastQueueStatementCountIsConstant(int size) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        seedQueue(yesterday, size);
+
+        List<QueueEntryResponse> queue = queueService.getDoctorQueue(doctor.getId(), yesterday);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertPositions(queue, size);
+    }
+
+    @Test
+    @DisplayName("A walk-in's patients-ahead comes from the live queue, not a COUNT query")
+    void walkInWaitTimeIsReadFromLiveQueue() {
+        LocalDate today = LocalDate.now();
+        seedQueue(today, 3);
+        queueService.getDoctorQueue(doctor.getId(), today);
+        Patient walkIn = patient(4);
+        em.flush();
+        statistics.clear();
+
+        QueueEntryResponse added = queueService.addWalkIn(doctor.getId(), walkIn.getUser().getId());
+
+        // #1 DONE, #2 IN_CONSULT, #3 WAITING
+        assertThat(added.getPatientsAhead()).isEqualTo(1);
+        assertThat(statistics.getQueries()).noneMatch(q -> q.contains("COUNT(q)"));
+    }
+
+    private void seedQueue(LocalDate date, int size) {
+        for (int i = 1; i <= size; i++) {
+            QueueStatus status = i == 1 ? QueueStatus.DONE : i == 2 ? QueueStatus.IN_CONSULT : QueueStatus.WAITING;
+            em.persist(QueueEntry.builder().clinic(clinic).doctor(doctor).patient(patient(i))
+                    .queueDate(date).queueNumber(i).status(status)
+                    .checkInTime(LocalDateTime.now()).walkIn(false).build());
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+
+    /** DONE and IN_CONSULT entries are not counted as waiting ahead. */
+    private void assertPositions(List<QueueEntryResponse> queue, int size) {
+        assertThat(queue).hasSize(size);
+        assertThat(queue.get(size - 1).getPatientsAhead()).isEqualTo(size - 3);
+        assertThat(queue.get(2).getPatientsAhead()).isZero();
+        assertThat(queue.get(size - 1).getPatientName()).isEqualTo("Patient " + size);
+    }
+
+    private Patient patient(int i) {
+        User user = em.persist(User.builder().fullName("Patient " + i).email("p" + i + "@test.com")
+                .password("x").phone("98" + i).role(Role.PATIENT).clinic(clinic).enabled(true).build());
+        return em.persist(Patient.builder().user(user).clinic(clinic).emailConsent(true).build());
+    }
+}
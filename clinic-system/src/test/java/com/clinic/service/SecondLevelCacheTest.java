@@ -0,0 +1,119 @@
+package com.clinic.service;
+
+import com.clinic.config.SecondLevelCacheMetrics;
+import com.clinic.model.entity.*;
+import com.clinic.model.enums.ClinicStatus;
+import com.clinic.model.enums.Role;
+import com.clinic.repository.ClinicRepository;
+import com.clinic.repository.DoctorRepository;
+import com.clinic.repository.DoctorScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SecondLevelCacheTest — reference data served from the second-level cache.
+ *
+ * The test profile turns the cache off; this class turns it back on. Each
+ * lookup runs in its own transaction (as in a request), so only the
+ * second-level cache — not the persistence context — can save a statement.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired private EntityManager em;
+    @Autowired private EntityManagerFactory emf;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private DoctorRepository doctorRepository;
+    @Autowired private ClinicRepository clinicRepository;
+    @Autowired private DoctorScheduleRepository scheduleRepository;
+
+    private Statistics statistics;
+    private Long doctorUserId;
+    private Long doctorId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        emf.getCache().evictAll();
+        tx.executeWithoutResult(s -> {
+            em.createQuery("DELETE FROM DoctorSchedule").executeUpdate();
+            em.createQuery("DELETE FROM Doctor").executeUpdate();
+            em.createQuery("DELETE FROM User").executeUpdate();
+            em.createQuery("DELETE FROM Clinic").executeUpdate();
+
+            Clinic clinic = Clinic.builder().name("Test Clinic").registrationCode("TST-001")
+                    .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(10).build();
+            em.persist(clinic);
+            User user = User.builder().fullName("Priya Singh").email("priya@test.com")
+                    .password("x").phone("9800000001").role(Role.DOCTOR).clinic(clinic).enabled(true).build();
+            em.persist(user);
+            Doctor doctor = Doctor.builder().user(user).clinic(clinic)
+                    .specialization("General Physician").maxDailyAppointments(20).available(true).build();
+            em.persist(doctor);
+            em.persist(DoctorSchedule.builder().doctor(doctor).dayOfWeek(DayOfWeek.MONDAY)
+                    .startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(13, 0)).active(true).build());
+            doctorUserId = user.getId();
+            doctorId = doctor.getId();
+        });
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Natural-id lookups of doctors and clinics run no statements once cached")
+    void naturalIdLookupsAreCached() {
+        assertThat(doctorRepository.findByUserId(doctorUserId)).isPresent();
+        assertThat(clinicRepository.findByRegistrationCode("TST-001")).isPresent();
+        long cold = statistics.getPrepareStatementCount();
+
+        assertThat(doctorRepository.findByUserId(doctorUserId)).get()
+                .extracting(Doctor::getId).isEqualTo(doctorId);
+        assertThat(clinicRepository.findByRegistrationCode("TST-001")).isPresent();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(cold);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SecondLevelCacheMetrics(emf).bindTo(registry);
+        assertThat(registry.get("clinic.cache.l2.requests")
+                .tags("region", "doctors_by_user", "result", "hit").functionCounter().count()).isPositive();
+        assertThat(registry.get("clinic.cache.l2.hit.ratio").tag("region", "doctors").gauge().value())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("A doctor's schedules are read once, then served from the collection and query caches")
+    void schedulesAreCached() {
+        tx.executeWithoutResult(s -> {
+            Doctor doctor = em.find(Doctor.class, doctorId);
+            assertThat(doctor.getSchedules()).hasSize(1);
+            assertThat(scheduleRepository.findByDoctorAndDayOfWeekAndActiveTrue(doctor, DayOfWeek.MONDAY)).hasSize(1);
+        });
+        statistics.clear();
+
+        tx.executeWithoutResult(s -> {
+            Doctor doctor = em.find(Doctor.class, doctorId);
+            assertThat(doctor.getSchedules()).hasSize(1);
+            assertThat(scheduleRepository.findByDoctorAndDayOfWeekAndActiveTrue(doctor, DayOfWeek.MONDAY)).hasSize(1);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
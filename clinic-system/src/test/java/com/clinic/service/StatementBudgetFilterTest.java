@@ -0,0 +1,109 @@
+package com.clinic.service;
+
+import com.clinic.config.RequestStatementProfiler;
+import com.clinic.config.RequestStatementProfiler.EndpointSummary;
+import com.clinic.config.StatementBudgetConfig;
+import com.clinic.config.StatementBudgetFilter;
+import com.clinic.exception.StatementBudgetExceededException;
+import com.clinic.model.entity.Clinic;
+import com.clinic.model.enums.ClinicStatus;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * StatementBudgetFilterTest — the per-request statement budget, run against
+ * H2 with RequestStatementProfiler installed as Hibernate's StatementInspector.
+ *
+ * A request that loads N clinics one by one is the N+1 shape: the same
+ * SELECT repeated N times.
+ */
+@DataJpaTest(properties = "clinic.sql.budget.max-statements=3")
+@ActiveProfiles("test")
+@Import(StatementBudgetConfig.class)
+class StatementBudgetFilterTest {
+
+    private static final String PATTERN = "/admin/clinics/{id}";
+
+    @Autowired private TestEntityManager em;
+    @Autowired private RequestStatementProfiler profiler;
+    @Autowired private FilterRegistrationBean<StatementBudgetFilter> registration;
+
+    private final List<Long> clinicIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 5; i++) {
+            clinicIds.add(em.persist(Clinic.builder().name("Clinic " + i).registrationCode("BGT-00" + i)
+                    .address("Kathmandu").city("Kathmandu").status(ClinicStatus.ACTIVE).maxDoctors(5).build())
+                    .getId());
+        }
+        em.flush();
+        em.clear();
+        profiler.reset();
+    }
+
+    @Test
+    @DisplayName("A request within budget is counted per endpoint pattern")
+    void requestWithinBudgetIsCounted() throws Exception {
+        run(loadClinics(2));
+
+        EndpointSummary summary = profiler.worstEndpoints(10).get(0);
+        assertThat(summary.endpoint()).isEqualTo("GET " + PATTERN);
+        assertThat(summary.requests()).isEqualTo(1);
+        assertThat(summary.maxStatements()).isEqualTo(2);
+        assertThat(summary.overBudget()).isZero();
+    }
+
+    @Test
+    @DisplayName("on-exceed=fail (test profile) fails a request over budget and reports the repeated statement")
+    void requestOverBudgetFails() {
+        assertThatThrownBy(() -> run(loadClinics(5)))
+                .isInstanceOf(StatementBudgetExceededException.class)
+                .hasMessageContaining("ran 5 SQL statements, budget is 3");
+
+        EndpointSummary summary = profiler.worstEndpoints(10).get(0);
+        assertThat(summary.overBudget()).isEqualTo(1);
+        assertThat(summary.mostRepeatedCount()).isEqualTo(5);
+        assertThat(summary.mostRepeatedSql()).containsIgnoringCase("from clinics");
+    }
+
+    @Test
+    @DisplayName("Statements outside a request are not counted")
+    void statementsOutsideRequestAreIgnored() throws Exception {
+        loadClinics(5).doFilter(null, null);
+        run((req, res) -> { });
+
+        assertThat(profiler.worstEndpoints(10).get(0).maxStatements()).isZero();
+    }
+
+    private FilterChain loadClinics(int count) {
+        return (req, res) -> {
+            for (Long id : clinicIds.subList(0, count)) {
+                em.find(Clinic.class, id);
+                em.clear();
+            }
+        };
+    }
+
+    private void run(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/clinics/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+        registration.getFilter().doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}